@@ -0,0 +1,16 @@
+package com.NewCooks.NewCooks.Config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Schema changes that ddl-auto=update can't make on a populated database run before Hibernate builds
+// the EntityManagerFactory and applies its own update
+@Configuration
+public class SchemaMigrationConfig {
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnMigrations() {
+        return new EntityManagerFactoryDependsOnPostProcessor("collectionOrderMigration");
+    }
+}
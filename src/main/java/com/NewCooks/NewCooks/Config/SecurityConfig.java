@@ -63,7 +63,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // enable above CORS
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**", "/activate/**", "/h2-console/**", "/test", "/error", "/user/recipes", "/recipes/rating/**", "/recipes/most-reviewed/**").permitAll()
+                        .requestMatchers("/auth/**", "/activate/**", "/h2-console/**", "/test", "/error", "/user/recipes", "/user/recipes/cards", "/user/recipes/feed", "/recipes/rating/**", "/recipes/most-reviewed/**", "/media/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
@@ -5,15 +5,13 @@ import com.NewCooks.NewCooks.Entity.Chef;
 import com.NewCooks.NewCooks.Entity.User;
 import com.NewCooks.NewCooks.Repository.ChefRepository;
 import com.NewCooks.NewCooks.Repository.UserRepository;
+import com.NewCooks.NewCooks.Security.AuthenticatedAccount;
 import com.NewCooks.NewCooks.Security.JWTUtil;
 import com.NewCooks.NewCooks.Service.ChefService;
-import com.NewCooks.NewCooks.Service.EmailService;
 import com.NewCooks.NewCooks.Service.UserService;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.MailException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -32,8 +30,6 @@ public class AuthController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JWTUtil jwtUtil;
-    @Autowired
-    private EmailService emailService;
 
     @Value("${app.base-url}")
     private String appBaseUrl;
@@ -80,7 +76,7 @@ public class AuthController {
                                 .body(Map.of("message", "Please activate your account first"));
                     }
                     if (passwordEncoder.matches(req.getPassword(), chef.getPassword())) {
-                        String token = jwtUtil.generateToken(chef.getEmail(), "ROLE_CHEF");
+                        String token = jwtUtil.generateToken(chef.getEmail(), AuthenticatedAccount.ROLE_CHEF, chef.getId());
                         return ResponseEntity.ok(
                                 Map.of(
                                         "token", token,
@@ -122,7 +118,7 @@ public class AuthController {
                                 .body(Map.of("message", "Please activate your account first"));
                     }
                     if (passwordEncoder.matches(req.getPassword(), user.getPassword())) {
-                        String token = jwtUtil.generateToken(user.getEmail(), "ROLE_USER");
+                        String token = jwtUtil.generateToken(user.getEmail(), AuthenticatedAccount.ROLE_USER, user.getUserId());
                         return ResponseEntity.ok(
                                 Map.of(
                                         "token", token,
@@ -186,22 +182,12 @@ public class AuthController {
 
         // === Send activation email automatically ===
         String token = UUID.randomUUID().toString();  // generate token
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setActive(false); // Require reactivation
-        user.setActivationToken(token);
-        userRepository.save(user);
-
-        try {
-            String base = appBaseUrl;
-            if (!base.endsWith("/newcooks")) {
-                base = base.endsWith("/") ? base + "newcooks" : base + "/newcooks";
-            }
-            String activationLink = base + "/auth/activate?token=" + token;
-            emailService.sendActivationEmail(user.getEmail(),activationLink);
-        } catch (MailException e) {
-            System.err.println("Failed to send activation email: " + e.getMessage());
-            throw new RuntimeException("Registration successful but failed to send activation email. Please contact support.");
+        String base = appBaseUrl;
+        if (!base.endsWith("/newcooks")) {
+            base = base.endsWith("/") ? base + "newcooks" : base + "/newcooks";
         }
+        String activationLink = base + "/auth/activate?token=" + token;
+        userService.resetPassword(user, newPassword, token, activationLink);
         return ResponseEntity.ok(Map.of("message", "Password updated. Activation email sent to your inbox."));
     }
 
@@ -223,22 +209,12 @@ public class AuthController {
 
         // === Send activation email automatically ===
         String token = UUID.randomUUID().toString();  // generate token
-        chef.setPassword(passwordEncoder.encode(newPassword));
-        chef.setActive(false); // Require reactivation
-        chef.setActivationToken(token);
-        chefRepository.save(chef);
-
-        try {
-            String base = appBaseUrl;
-            if (!base.endsWith("/newcooks")) {
-                base = base.endsWith("/") ? base + "newcooks" : base + "/newcooks";
-            }
-            String activationLink = base + "/auth/activate?token=" + token;
-            emailService.sendActivationEmail(chef.getEmail(),activationLink);
-        } catch (MailException e) {
-            System.err.println("Failed to send activation email: " + e.getMessage());
-            throw new RuntimeException("Registration successful but failed to send activation email. Please contact support.");
+        String base = appBaseUrl;
+        if (!base.endsWith("/newcooks")) {
+            base = base.endsWith("/") ? base + "newcooks" : base + "/newcooks";
         }
+        String activationLink = base + "/auth/activate?token=" + token;
+        chefService.resetPassword(chef, newPassword, token, activationLink);
         return ResponseEntity.ok(Map.of("message", "Password updated. Activation email sent to your inbox."));
     }
 
@@ -4,6 +4,7 @@ import com.NewCooks.NewCooks.DTO.*;
 import com.NewCooks.NewCooks.Entity.Chef;
 import com.NewCooks.NewCooks.Entity.Recipe;
 import com.NewCooks.NewCooks.Repository.ChefRepository;
+import com.NewCooks.NewCooks.Security.AuthenticatedAccount;
 import com.NewCooks.NewCooks.Service.ChefService;
 import com.NewCooks.NewCooks.Service.CloudinaryService;
 import com.NewCooks.NewCooks.Service.RecipeService;
@@ -13,9 +14,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.security.Principal;
 import java.util.List;
@@ -33,25 +35,19 @@ public class ChefController
     private final ObjectMapper objectMapper;
 
 
-    // Helper method to check if logged-in user matches path chefId
-    private boolean isAuthorized(Long chefId) {
-        String loggedInEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        return chefService.findByEmail(loggedInEmail)
-                .map(loggedInChef -> loggedInChef.getId().equals(chefId))
-                .orElse(false);
+    // Helper method to check if logged-in chef matches path chefId
+    private boolean isAuthorized(AuthenticatedAccount account, Long chefId) {
+        return account.chefId().equals(chefId);
     }
 
     @PostMapping(value = "/recipes", consumes = { MediaType.MULTIPART_FORM_DATA_VALUE })
     public ResponseEntity<?> addRecipe(@RequestPart("recipe") String recipeDtoString,
                                        @RequestPart(value = "thumbnailFile", required = false) MultipartFile thumbnailFile,
                                        @RequestPart(value = "imageFiles", required = false) List<MultipartFile> imageFiles,
-                                       Principal principal) {
+                                       @AuthenticationPrincipal AuthenticatedAccount account) {
+        Long chefId = account.chefId();
         try {
             RecipeDTO dto = objectMapper.readValue(recipeDtoString, RecipeDTO.class);
-            String loggedInUsername = principal.getName();
-            Long chefId = chefService.findByEmail(loggedInUsername)
-                    .orElseThrow(() -> new RuntimeException("Chef not found"))
-                    .getId();
 
             Recipe created = recipeService.addRecipe(chefId, dto, thumbnailFile, imageFiles);
             RecipeResponseDTO responseDTO = recipeService.toRecipeResponseDTO(created);
@@ -66,18 +62,13 @@ public class ChefController
                                           @RequestPart("recipe") String recipeDtoString, // Receive DTO as a JSON string
                                           @RequestPart(value = "newThumbnailFile", required = false) MultipartFile newThumbnailFile,
                                           @RequestPart(value = "newImageFiles", required = false) List<MultipartFile> newImageFiles,
-                                          Principal principal) {
+                                          @AuthenticationPrincipal AuthenticatedAccount account) {
+        // The isAuthorized check is not needed here as we get the chefId from the token
+        Long chefId = account.chefId();
         try {
             // Deserialize the JSON string to our DTO object
             RecipeDTO dto = objectMapper.readValue(recipeDtoString, RecipeDTO.class);
 
-            String loggedInUsername = principal.getName();
-            Long chefId = chefService.findByEmail(loggedInUsername)
-                    .orElseThrow(() -> new RuntimeException("Chef not found"))
-                    .getId();
-
-            // The isAuthorized check is no longer needed here as we get the chefId from the principal
-
             Recipe updated = recipeService.updateRecipe(chefId, recipeId, dto, newThumbnailFile, newImageFiles)
                     .orElseThrow(() -> new RuntimeException("Cannot update recipe"));
 
@@ -91,50 +82,31 @@ public class ChefController
     }
 
     @DeleteMapping("/recipes/{recipeId}")
-    public ResponseEntity<?> deleteRecipe(Principal principal, @PathVariable Long recipeId) {
-
-        String loggedInUsername = principal.getName();
-        Long chefId = chefService.findByEmail(loggedInUsername)
-                .orElseThrow(() -> new RuntimeException("Chef not found"))
-                .getId();
-
-        if (!isAuthorized(chefId)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not authorized to delete recipes for this chef.");
-        }
-        recipeService.deleteRecipe(chefId, recipeId);
+    public ResponseEntity<?> deleteRecipe(@AuthenticationPrincipal AuthenticatedAccount account, @PathVariable Long recipeId) {
+        // Ownership of the recipe itself is checked by deleteRecipe
+        recipeService.deleteRecipe(account.chefId(), recipeId);
         return ResponseEntity.ok("Recipe deleted");
     }
 
     @GetMapping("/recipes")
-    public ResponseEntity<?> getMyRecipes(Principal principal) {
-
-        String loggedInUsername = principal.getName();
-        Long chefId = chefService.findByEmail(loggedInUsername)
-                .orElseThrow(() -> new RuntimeException("Chef not found"))
-                .getId();
-
-        if (!isAuthorized(chefId)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not authorized to view recipes for this chef.");
-        }
-        List<Recipe> recipes = recipeService.getRecipesByChef(chefId);
-        List<RecipeResponseDTO> dtoList = recipes.stream()
-                .map(recipeService::toRecipeResponseDTO)
-                .toList();
+    public ResponseEntity<?> getMyRecipes(@AuthenticationPrincipal AuthenticatedAccount account) {
+        List<RecipeResponseDTO> dtoList = recipeService.getRecipeResponseDTOsByChef(account.chefId());
 
         return ResponseEntity.ok(dtoList);
     }
 
+    @GetMapping("/recipes/cards")
+    public ResponseEntity<List<RecipeCardDTO>> getMyRecipeCards(@AuthenticationPrincipal AuthenticatedAccount account) {
+        return ResponseEntity.ok(recipeService.getRecipeCardsByChef(account.chefId()));
+    }
+
     @GetMapping("/recipes/{recipeId}")
-    public ResponseEntity<?> getMyRecipeById(Principal principal, @PathVariable Long recipeId) {
-        String loggedInUsername = principal.getName();
+    public ResponseEntity<?> getMyRecipeById(@AuthenticationPrincipal AuthenticatedAccount account, @PathVariable Long recipeId) {
+        Long loggedInChefId = account.chefId();
 
         Recipe recipe = recipeService.getRecipeById(recipeId)
                 .orElseThrow(() -> new RuntimeException("Recipe not found"));
 
-        Long loggedInChefId = chefService.findByEmail(loggedInUsername)
-                .orElseThrow(() -> new RuntimeException("Chef not found"))
-                .getId();
-
         if (!recipe.getChef().getId().equals(loggedInChefId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body("You are not authorized to view recipes for this chef.");
@@ -148,9 +120,10 @@ public class ChefController
     public ResponseEntity<?> deleteRecipeImage(
             @PathVariable Long chefId,
             @PathVariable Long recipeId,
-            @RequestBody Map<String, String> body
+            @RequestBody Map<String, String> body,
+            @AuthenticationPrincipal AuthenticatedAccount account
     ) {
-        if (!isAuthorized(chefId)) {
+        if (!isAuthorized(account, chefId)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not authorized to delete images for this chef.");
         }
 
@@ -236,7 +209,10 @@ public class ChefController
     }
 
     @GetMapping("/recipes/{recipeId}/reviews")
-    public ResponseEntity<?> getReviewsForRecipeByChef(@PathVariable Long recipeId, Principal principal) {
+    public ResponseEntity<?> getReviewsForRecipeByChef(@PathVariable Long recipeId,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(defaultValue = "20") int size,
+                                                       Principal principal) {
         if (principal == null) {
             return ResponseEntity.status(401).body("Unauthorized: Principal is null");
         }
@@ -253,7 +229,10 @@ public class ChefController
             }
 
             // Fetch reviews
-            return ResponseEntity.ok(recipeService.getReviewsForRecipe(recipeId));
+            int pageSize = Math.max(1, Math.min(size, 50));
+            return ResponseEntity.ok(recipeService.getReviewsForRecipe(recipeId, cursor, pageSize));
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -263,36 +242,39 @@ public class ChefController
     @GetMapping("/recipes/search")
     public ResponseEntity<List<ChefRecipeSearchSuggestionDTO>> searchChefRecipes(
             @RequestParam String keyword,
-            Principal principal) {
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal AuthenticatedAccount account) {
 
-        // Get logged-in username (email or username depending on your setup)
-        String loggedInUsername = principal.getName();
+        // chefId comes from the verified token
+        Long chefId = account.chefId();
 
-        // Look up chefId securely from DB
-        Long chefId = chefService.findByEmail(loggedInUsername)
-                .orElseThrow(() -> new RuntimeException("Chef not found"))
-                .getId();
-
-        List<ChefRecipeSearchSuggestionDTO> results = chefService.searchChefRecipes(chefId, keyword);
+        List<ChefRecipeSearchSuggestionDTO> results = chefService.searchChefRecipes(chefId, keyword, limit);
         return ResponseEntity.ok(results);
     }
 
     @GetMapping("/analytics")
-    public ChefAnalyticsDTO getChefAnalytics(Principal principal) {
+    public ChefAnalyticsDTO getChefAnalytics(@AuthenticationPrincipal AuthenticatedAccount account) {
+        return recipeService.getChefAnalytics(account.chefId());
+    }
+
+    // days = 7, 30 or 90
+    @GetMapping("/analytics/recent")
+    public WindowAnalyticsDTO getChefRecentAnalytics(@RequestParam(defaultValue = "30") int days,
+                                                     @AuthenticationPrincipal AuthenticatedAccount account) {
+        return recipeService.getChefRecentAnalytics(account.chefId(), days);
+    }
 
-        String loggedInUsername = principal.getName();
-        Long chefId = chefService.findByEmail(loggedInUsername)
-                .orElseThrow(() -> new RuntimeException("Chef not found"))
-                .getId();
-        return recipeService.getChefAnalytics(chefId);
+    @GetMapping("/recipes/{recipeId}/analytics/recent")
+    public WindowAnalyticsDTO getRecipeRecentAnalytics(@PathVariable Long recipeId,
+                                                       @RequestParam(defaultValue = "30") int days,
+                                                       @AuthenticationPrincipal AuthenticatedAccount account) {
+        return recipeService.getRecipeRecentAnalytics(account.chefId(), recipeId, days);
     }
 
     @GetMapping("/most-reviewed")
-    public ResponseEntity<List<MostReviewedRecipeDTO>> getChefMostReviewed(Principal principal) {
+    public ResponseEntity<List<MostReviewedRecipeDTO>> getChefMostReviewed(@AuthenticationPrincipal AuthenticatedAccount account) {
         // Get logged-in chef's ID
-        Long chefId = chefService.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("Chef not found"))
-                .getId();
+        Long chefId = account.chefId();
 
         // Fetch top 5 most-reviewed recipes for this chef
         List<MostReviewedRecipeDTO> mostReviewed = recipeService.getChefMostReviewedRecipes(5, chefId);
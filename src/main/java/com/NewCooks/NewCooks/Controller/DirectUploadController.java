@@ -0,0 +1,73 @@
+package com.NewCooks.NewCooks.Controller;
+
+import com.NewCooks.NewCooks.DTO.*;
+import com.NewCooks.NewCooks.Entity.Chef;
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Entity.User;
+import com.NewCooks.NewCooks.Security.AuthenticatedAccount;
+import com.NewCooks.NewCooks.Service.ChefService;
+import com.NewCooks.NewCooks.Service.DirectUploadService;
+import com.NewCooks.NewCooks.Service.RecipeService;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+// Direct-to-Cloudinary uploads: get signed parameters, upload from the browser, then confirm here
+@RestController
+@RequestMapping("/uploads")
+@CrossOrigin(origins = "${newcooks.frontend.url}")
+@ConditionalOnProperty(name = "newcooks.media.storage", havingValue = "cloudinary", matchIfMissing = true)
+@AllArgsConstructor
+public class DirectUploadController
+{
+    private final DirectUploadService directUploadService;
+    private final RecipeService recipeService;
+    private final ChefService chefService;
+
+    // One signature per file to upload
+    @PostMapping("/signature")
+    public ResponseEntity<SignedUploadDTO> sign(@AuthenticationPrincipal AuthenticatedAccount account) {
+        return ResponseEntity.ok(directUploadService.sign(account));
+    }
+
+    @PostMapping("/recipes/{recipeId}/confirm")
+    public ResponseEntity<?> confirmRecipeImages(@PathVariable Long recipeId,
+                                                 @RequestBody DirectUploadConfirmDTO confirm,
+                                                 @AuthenticationPrincipal AuthenticatedAccount account) {
+        try {
+            Recipe updated = directUploadService.attachToRecipe(account, recipeId, confirm);
+            return ResponseEntity.ok(recipeService.toRecipeResponseDTO(updated));
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error confirming upload: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/profile-picture/confirm")
+    public ResponseEntity<?> confirmProfilePicture(@RequestBody DirectUploadDTO upload,
+                                                   @AuthenticationPrincipal AuthenticatedAccount account) {
+        try {
+            if (AuthenticatedAccount.ROLE_CHEF.equals(account.role())) {
+                Chef chef = directUploadService.attachChefProfilePicture(account, upload);
+                return ResponseEntity.ok(chefService.toChefProfileDTO(chef));
+            }
+            User user = directUploadService.attachUserProfilePicture(account, upload);
+            return ResponseEntity.ok(new UserProfileDTO(
+                    user.getUserId(),
+                    user.getName(),
+                    user.getEmail(),
+                    user.getProfilePicture(),
+                    user.getAboutMe()
+            ));
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error confirming upload: " + e.getMessage());
+        }
+    }
+}
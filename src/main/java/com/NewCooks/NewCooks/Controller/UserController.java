@@ -9,7 +9,9 @@ import com.NewCooks.NewCooks.Repository.RatingRepository;
 import com.NewCooks.NewCooks.Repository.RecipeRepository;
 import com.NewCooks.NewCooks.Repository.ReviewRepository;
 import com.NewCooks.NewCooks.Repository.UserRepository;
+import com.NewCooks.NewCooks.Security.AuthenticatedAccount;
 import com.NewCooks.NewCooks.Service.RecipeService;
+import com.NewCooks.NewCooks.Service.RecipeTypeahead;
 import com.NewCooks.NewCooks.Service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
@@ -17,9 +19,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.security.Principal;
 import java.util.List;
@@ -38,12 +41,10 @@ public class UserController {
     private final RecipeRepository recipeRepository;
     private final ReviewRepository reviewRepository;
     private final ObjectMapper objectMapper;
+    private final RecipeTypeahead recipeTypeahead;
 
-    private boolean isAuthorized(Long userId) {
-        String loggedInEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        return userService.findByEmail(loggedInEmail)
-                .map(loggedInChef -> loggedInChef.getUserId().equals(userId))
-                .orElse(false);
+    private boolean isAuthorized(AuthenticatedAccount account, Long userId) {
+        return account.userId().equals(userId);
     }
 
     @GetMapping("/recipes")
@@ -52,10 +53,30 @@ public class UserController {
             @RequestParam(defaultValue = "12") int size
     ) {
         Page<Recipe> recipesPage = recipeService.getAllRecipes(page, size);
-        Page<RecipeResponseDTO> dtoList = recipesPage.map(recipeService::toRecipeResponseDTO);
+        Page<RecipeResponseDTO> dtoList = recipeService.toRecipeResponsePage(recipesPage);
         return ResponseEntity.ok(dtoList);
     }
 
+    // Card view of /recipes: title, thumbnail, short description and chef name only
+    @GetMapping("/recipes/cards")
+    public ResponseEntity<Page<RecipeCardDTO>> viewRecipeCards(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "12") int size
+    ) {
+        return ResponseEntity.ok(recipeService.getRecipeCards(page, size));
+    }
+
+    // Keyset-paginated variant of /recipes: pass back nextCursor to get the following page
+    @GetMapping("/recipes/feed")
+    public ResponseEntity<CursorPageDTO<RecipeResponseDTO>> viewRecipeFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size,
+            @RequestParam(defaultValue = "newest") String sort
+    ) {
+        int pageSize = Math.max(1, Math.min(size, 50));
+        return ResponseEntity.ok(recipeService.getRecipeFeed(cursor, pageSize, sort));
+    }
+
     @GetMapping("/recipes/{recipeId}")
     public ResponseEntity<?> viewRecipe(@PathVariable Long recipeId) {
         return recipeService.getRecipeById(recipeId)
@@ -81,16 +102,10 @@ public class UserController {
     @PostMapping("/ratings/{recipeId}")
     public ResponseEntity<?> addOrUpdateRating(
             @PathVariable Long recipeId,
-            @RequestBody RatingDTO ratingDTO
+            @RequestBody RatingDTO ratingDTO,
+            @AuthenticationPrincipal AuthenticatedAccount account
     ) {
-        String loggedInEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        Optional<User> userOpt = userService.findByEmail(loggedInEmail);
-
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("User not authorized or not found.");
-        }
-
-        Long userId = userOpt.get().getUserId();
+        Long userId = account.userId();
 
         try {
             return ResponseEntity.ok(recipeService.addOrUpdateRating(recipeId, userId, ratingDTO.getStars()));
@@ -102,16 +117,9 @@ public class UserController {
     @GetMapping("/recipes/user-rating/{recipeId}")
     public ResponseEntity<RatingDTO> getUserRatingForRecipe(
             @PathVariable Long recipeId,
-            Principal principal) {
-
-        String email = principal.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Recipe recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
+            @AuthenticationPrincipal AuthenticatedAccount account) {
 
-        Optional<RatingEntity> rating = ratingRepository.findByUserAndRecipe(user, recipe);
+        Optional<RatingEntity> rating = ratingRepository.findByUser_UserIdAndRecipe_RecipeId(account.userId(), recipeId);
 
         int stars = rating.map(RatingEntity::getRatingValue).orElse(0);
         RatingDTO dto = new RatingDTO(stars);
@@ -120,17 +128,20 @@ public class UserController {
     }
 
 
+    // Batch form of user-rating, my-review and favorite status for a page of cards, e.g. ?ids=4,8,15
+    @GetMapping("/recipes/my-state")
+    public ResponseEntity<List<UserRecipeStateDTO>> getUserStateForRecipes(
+            @RequestParam List<Long> ids,
+            @AuthenticationPrincipal AuthenticatedAccount account) {
+        return ResponseEntity.ok(userService.getRecipeStates(account.userId(), ids));
+    }
+
     @DeleteMapping("/ratings/{recipeId}")
     public ResponseEntity<?> deleteRating(
-            @PathVariable Long recipeId
+            @PathVariable Long recipeId,
+            @AuthenticationPrincipal AuthenticatedAccount account
     ) {
-        String loggedInEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        Optional<User> userOpt = userService.findByEmail(loggedInEmail);
-
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("User not authorized or not found.");
-        }
-        Long userId = userOpt.get().getUserId();
+        Long userId = account.userId();
 
         try {
             recipeService.deleteRating(userId, recipeId);
@@ -143,15 +154,10 @@ public class UserController {
     @PostMapping("/reviews/{recipeId}")
     public ResponseEntity<?> addOrUpdateReview(
             @PathVariable Long recipeId,
-            @RequestBody ReviewDTO reviewDTO
+            @RequestBody ReviewDTO reviewDTO,
+            @AuthenticationPrincipal AuthenticatedAccount account
     ) {
-        String loggedInEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        Optional<User> userOpt = userService.findByEmail(loggedInEmail);
-
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("User not authorized or not found.");
-        }
-        Long userId = userOpt.get().getUserId();
+        Long userId = account.userId();
 
         try {
             return ResponseEntity.ok(recipeService.addOrUpdateReview(recipeId, userId, reviewDTO.getReviewText()));
@@ -161,9 +167,14 @@ public class UserController {
     }
 
     @GetMapping("/reviews/{recipeId}")
-    public ResponseEntity<?> getReviewsForRecipe(@PathVariable Long recipeId) {
+    public ResponseEntity<?> getReviewsForRecipe(@PathVariable Long recipeId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, 50));
         try {
-            return ResponseEntity.ok(recipeService.getReviewsForRecipe(recipeId));
+            return ResponseEntity.ok(recipeService.getReviewsForRecipe(recipeId, cursor, pageSize));
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -172,16 +183,9 @@ public class UserController {
     @GetMapping("/recipes/my-review/{recipeId}")
     public ResponseEntity<ReviewDTO> getUserReviewForRecipe(
             @PathVariable Long recipeId,
-            Principal principal) {
+            @AuthenticationPrincipal AuthenticatedAccount account) {
 
-        String email = principal.getName();
-        User user = userService.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Recipe recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
-
-        Optional<ReviewEntity> review = reviewRepository.findByUserAndRecipe(user, recipe);
+        Optional<ReviewEntity> review = reviewRepository.findByUser_UserIdAndRecipe_RecipeId(account.userId(), recipeId);
 
         if (review.isPresent()) {
             ReviewEntity r = review.get();
@@ -199,16 +203,9 @@ public class UserController {
     @DeleteMapping("/reviews/{reviewId}")
     public ResponseEntity<?> deleteReview(
             @PathVariable Long reviewId,
-            Principal principal
+            @AuthenticationPrincipal AuthenticatedAccount account
     ) {
-
-        String email = principal.getName();
-        Optional<User> userOpt = userService.findByEmail(email);
-
-        if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("User not authorized or not found.");
-        }
-        Long userId = userOpt.get().getUserId();
+        Long userId = account.userId();
 
         try {
             recipeService.deleteReview(userId, reviewId);
@@ -271,36 +268,53 @@ public class UserController {
 
     @GetMapping("/recipes/search")
     public ResponseEntity<List<RecipeSearchSuggestionDTO>> searchUserRecipes(
-            @RequestParam String keyword) {
+            @RequestParam String keyword,
+            @RequestParam(required = false) Integer limit) {
 
-        List<RecipeSearchSuggestionDTO> results = userService.searchRecipes(keyword);
+        List<RecipeSearchSuggestionDTO> results = userService.searchRecipes(keyword, limit);
         return ResponseEntity.ok(results);
     }
 
+    // e.g. /recipes/by-ingredients?ingredients=egg&ingredients=tomato&utensils=pan&minMatch=2
+    @GetMapping("/recipes/by-ingredients")
+    public ResponseEntity<List<IngredientSearchResultDTO>> searchByIngredients(
+            @RequestParam(required = false) List<String> ingredients,
+            @RequestParam(required = false) List<String> utensils,
+            @RequestParam(required = false) Integer minMatch,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(recipeService.searchByIngredients(ingredients, utensils, minMatch, limit));
+    }
+
+    // Search-box suggestions: top titles for the typed prefix, most reviewed first
+    @GetMapping("/recipes/suggest")
+    public ResponseEntity<TypeaheadResponseDTO> suggestRecipes(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(recipeTypeahead.suggest(prefix, limit));
+    }
+
     @PostMapping("/favourites/{recipeId}")
     public ResponseEntity<FavoriteDTO> toggleFavorite(
             @PathVariable Long recipeId,
-            Principal principal) {
-        String username = principal.getName();
-        FavoriteDTO dto = userService.toggleFavorite(username, recipeId);
+            @AuthenticationPrincipal AuthenticatedAccount account) {
+        FavoriteDTO dto = userService.toggleFavorite(account.userId(), recipeId);
         return ResponseEntity.ok(dto);
     }
 
     @GetMapping("/favourites")
-    public ResponseEntity<List<RecipeResponseDTO>> getFavorites(Principal principal) {
-        String username = principal.getName();
-        List<RecipeResponseDTO> favorites = userService.getUserFavorites(username);
+    public ResponseEntity<List<RecipeResponseDTO>> getFavorites(@AuthenticationPrincipal AuthenticatedAccount account) {
+        List<RecipeResponseDTO> favorites = userService.getUserFavorites(account.userId());
         return ResponseEntity.ok(favorites);
     }
 
+    @GetMapping("/favourites/cards")
+    public ResponseEntity<List<RecipeCardDTO>> getFavoriteCards(@AuthenticationPrincipal AuthenticatedAccount account) {
+        return ResponseEntity.ok(userService.getUserFavoriteCards(account.userId()));
+    }
 
     @GetMapping("/analytics")
-    public ResponseEntity<UserAnalyticsDTO> getUserAnalytics(Principal principal) {
-        Long userId = userService.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getUserId();
-
-        UserAnalyticsDTO analytics = recipeService.getUserAnalytics(userId);
+    public ResponseEntity<UserAnalyticsDTO> getUserAnalytics(@AuthenticationPrincipal AuthenticatedAccount account) {
+        UserAnalyticsDTO analytics = recipeService.getUserAnalytics(account.userId());
 
         return ResponseEntity.ok(analytics);
     }
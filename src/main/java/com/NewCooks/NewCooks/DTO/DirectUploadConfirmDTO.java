@@ -0,0 +1,16 @@
+package com.NewCooks.NewCooks.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Direct uploads to attach to a recipe: an optional new thumbnail and images to append
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadConfirmDTO {
+    private DirectUploadDTO thumbnail;
+    private List<DirectUploadDTO> images;
+}
@@ -0,0 +1,16 @@
+package com.NewCooks.NewCooks.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Fields copied from Cloudinary's upload response, sent back to confirm a direct upload
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadDTO {
+    private String publicId;
+    private String version;
+    private String format;
+    private String signature;
+}
@@ -0,0 +1,34 @@
+package com.NewCooks.NewCooks.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Resized copies of one image; null for images uploaded before variants existed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageVariantsDTO {
+    private Map<Integer, String> widths; // width in px -> URL, ascending
+    private String srcset;               // ready for <img srcset>, e.g. "https://.../a.jpg 320w, ..."
+    private String placeholder;          // tiny blurred JPEG as a data: URI
+
+    // Builds the DTO from the stored srcset; null when the asset has no variants
+    public static ImageVariantsDTO fromSrcset(String srcset, String placeholder) {
+        if ((srcset == null || srcset.isEmpty()) && placeholder == null) {
+            return null;
+        }
+        Map<Integer, String> widths = new LinkedHashMap<>();
+        if (srcset != null && !srcset.isEmpty()) {
+            for (String candidate : srcset.split(", ")) {
+                int space = candidate.lastIndexOf(' ');
+                widths.put(Integer.parseInt(candidate.substring(space + 1, candidate.length() - 1)),
+                        candidate.substring(0, space));
+            }
+        }
+        return new ImageVariantsDTO(widths, srcset, placeholder);
+    }
+}
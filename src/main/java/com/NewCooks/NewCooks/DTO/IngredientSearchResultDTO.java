@@ -0,0 +1,14 @@
+package com.NewCooks.NewCooks.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngredientSearchResultDTO {
+    private RecipeCardDTO recipe;
+    private int matched;   // how many of the requested ingredients/utensils this recipe has
+    private int requested;
+}
@@ -0,0 +1,35 @@
+package com.NewCooks.NewCooks.DTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lightweight recipe summary for feed cards; built directly by JPQL constructor queries
+@Data
+@NoArgsConstructor
+public class RecipeCardDTO {
+    public static final int SHORT_DESCRIPTION_LENGTH = 120;
+
+    private Long recipeId;
+    private String title;
+    private String thumbnail;
+    private String shortDescription;
+    private Long chefId;
+    private String chefName;
+    private ImageVariantsDTO thumbnailVariants;
+    private long favoriteCount;
+
+    // description is expected to be pre-truncated in SQL to SHORT_DESCRIPTION_LENGTH + 1 characters
+    public RecipeCardDTO(Long recipeId, String title, String thumbnail, String description, Long chefId, String chefName,
+                         String thumbnailSrcset, String thumbnailPlaceholder, long favoriteCount) {
+        this.recipeId = recipeId;
+        this.title = title;
+        this.thumbnail = thumbnail;
+        this.shortDescription = description != null && description.length() > SHORT_DESCRIPTION_LENGTH
+                ? description.substring(0, SHORT_DESCRIPTION_LENGTH) + "..."
+                : description;
+        this.chefId = chefId;
+        this.chefName = chefName;
+        this.thumbnailVariants = ImageVariantsDTO.fromSrcset(thumbnailSrcset, thumbnailPlaceholder);
+        this.favoriteCount = favoriteCount;
+    }
+}
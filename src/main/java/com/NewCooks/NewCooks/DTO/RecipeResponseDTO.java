@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -23,4 +24,8 @@ public class RecipeResponseDTO {
     // New fields
     private String thumbnail;
     private List<String> images;
+
+    // Responsive variants; images without any (e.g. older uploads) are absent / null
+    private ImageVariantsDTO thumbnailVariants;
+    private Map<String, ImageVariantsDTO> imageVariants; // keyed by the URL in images
 }
@@ -14,12 +14,16 @@ public class RecipeSearchSuggestionDTO {
     private String shortDescription;
 
     public static RecipeSearchSuggestionDTO fromEntity(Recipe recipe) {
+        return of(recipe.getRecipeId(), recipe.getTitle(), recipe.getDescription());
+    }
+
+    public static RecipeSearchSuggestionDTO of(Long recipeId, String title, String description) {
         return new RecipeSearchSuggestionDTO(
-                recipe.getRecipeId(),
-                recipe.getTitle(),
-                recipe.getDescription() != null && recipe.getDescription().length() > 80
-                        ? recipe.getDescription().substring(0, 80) + "..."
-                        : recipe.getDescription()
+                recipeId,
+                title,
+                description != null && description.length() > 80
+                        ? description.substring(0, 80) + "..."
+                        : description
         );
     }
 }
@@ -0,0 +1,18 @@
+package com.NewCooks.NewCooks.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Form fields for one signed browser upload straight to Cloudinary (POST multipart to uploadUrl)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignedUploadDTO {
+    private String uploadUrl;
+    private String apiKey;
+    private long timestamp;
+    private String publicId;
+    private String signature;
+    private long expiresAt; // epoch seconds; Cloudinary rejects the signature after this
+}
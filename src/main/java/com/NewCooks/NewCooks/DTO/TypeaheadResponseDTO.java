@@ -0,0 +1,17 @@
+package com.NewCooks.NewCooks.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypeaheadResponseDTO {
+    private String prefix;
+    private List<RecipeSearchSuggestionDTO> suggestions;
+    // true when suggestions hold every match: longer prefixes can be filtered client-side without a new request
+    private boolean complete;
+}
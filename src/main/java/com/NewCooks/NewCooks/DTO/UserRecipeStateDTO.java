@@ -0,0 +1,18 @@
+package com.NewCooks.NewCooks.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The caller's own rating, review and favorite flag for one recipe; stars = 0, and reviewId and reviewText
+// are null, when absent
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserRecipeStateDTO {
+    private Long recipeId;
+    private int stars;
+    private Long reviewId;
+    private String reviewText;
+    private boolean favorite;
+}
@@ -0,0 +1,6 @@
+package com.NewCooks.NewCooks.DTO;
+
+// Activity over the last `days` days (UTC), read from the daily rollups. Counts are of reviews/ratings
+// created in the window and not since deleted, less those from before the rollups deleted in the window;
+// avgRating is the average of the ratings given (new or changed) during the window.
+public record WindowAnalyticsDTO(int days, long reviewsAdded, long ratingsAdded, double avgRating) {}
@@ -49,5 +49,19 @@ public class Chef {
     @Column(name = "profile_picture")
     private String profilePicture;
 
+    // Analytics counters over this chef's recipes, kept in step by ChefRepository.applyAnalyticsChange*
+    // (read-only here, see Recipe.ratingSum)
+    @Column(name = "analytics_recipe_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long analyticsRecipeCount;
+
+    @Column(name = "analytics_review_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long analyticsReviewCount;
+
+    @Column(name = "analytics_rating_sum", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long analyticsRatingSum;
+
+    @Column(name = "analytics_rating_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long analyticsRatingCount;
+
 
 }
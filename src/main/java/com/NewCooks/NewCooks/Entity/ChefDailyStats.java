@@ -0,0 +1,46 @@
+package com.NewCooks.NewCooks.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// One UTC day of review/rating activity on a chef's recipes, written only by AnalyticsRollups upserts
+@Entity
+@Table(
+        name = "tbl_chef_daily_stats",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"chef_id", "day"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChefDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chef_id", nullable = false)
+    private Long chefId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    // Net change in reviews/ratings that day: deletes count negative
+    @Column(nullable = false)
+    private long reviewsAdded;
+
+    @Column(nullable = false)
+    private long ratingsAdded;
+
+    // Every rating submitted that day, new or changed, and the stars given; deletes don't count
+    @Column(nullable = false)
+    private long ratingsSubmitted;
+
+    @Column(nullable = false)
+    private long ratingStarsSubmitted;
+}
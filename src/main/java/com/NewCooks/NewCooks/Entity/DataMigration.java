@@ -0,0 +1,23 @@
+package com.NewCooks.NewCooks.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// A one-time data backfill that has completed, so later boots skip it
+@Entity
+@Table(name = "tbl_data_migration")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataMigration {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Instant appliedAt;
+}
@@ -0,0 +1,54 @@
+package com.NewCooks.NewCooks.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// One stored file, shared by every recipe/profile that uploaded identical bytes
+@Entity
+@Table(
+        name = "tbl_media_asset",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"content_hash"}),
+                @UniqueConstraint(columnNames = {"public_id"})
+        },
+        indexes = {
+                @Index(name = "idx_media_asset_url", columnList = "url")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaAsset {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Hex SHA-256 of the uploaded bytes, or "direct:<publicId>" for direct uploads we never saw
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 1000)
+    private String url;
+
+    @Column(name = "public_id", nullable = false)
+    private String publicId;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    // Resized copies as an <img srcset> value ("<url> 320w, <url> 640w"); null if none were made
+    @Column(length = 4000)
+    private String variantSrcset;
+
+    // Tiny blurred JPEG as a data: URI
+    @Column(length = 4000)
+    private String placeholder;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
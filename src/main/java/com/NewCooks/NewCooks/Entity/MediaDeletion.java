@@ -0,0 +1,23 @@
+package com.NewCooks.NewCooks.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+// One Cloudinary asset waiting to be deleted by MediaDeletionWorker
+@Entity
+@Table(
+        name = "tbl_media_deletion",
+        indexes = {
+                @Index(name = "idx_media_deletion_due", columnList = "next_attempt_at, id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@SuperBuilder
+public class MediaDeletion extends OutboxEntry {
+
+    @Column(name = "public_id", nullable = false)
+    private String publicId;
+}
@@ -0,0 +1,29 @@
+package com.NewCooks.NewCooks.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+// One email waiting for EmailOutboxWorker to hand it to the SMTP relay
+@Entity
+@Table(
+        name = "tbl_outbound_email",
+        indexes = {
+                @Index(name = "idx_outbound_email_due", columnList = "next_attempt_at, id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@SuperBuilder
+public class OutboundEmail extends OutboxEntry {
+
+    @Column(nullable = false)
+    private String toAddress;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, length = 4000)
+    private String body;
+}
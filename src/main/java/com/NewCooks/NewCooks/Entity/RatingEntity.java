@@ -2,6 +2,10 @@ package com.NewCooks.NewCooks.Entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Table(
@@ -31,4 +35,12 @@ public class RatingEntity {
 
     @Column(nullable = false)
     private int ratingValue; // e.g. 1 to 5
+
+    // Null for rows written before these columns existed
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
@@ -11,6 +11,8 @@ import java.util.Set;
 @Entity
 @Table(name = "tbl_recipe", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"title", "chef_id"})
+}, indexes = {
+        @Index(name = "idx_recipe_title_id", columnList = "title, recipe_id")
 })
 @Getter
 @Setter
@@ -35,11 +37,13 @@ public class Recipe {
 
     @ElementCollection
     @CollectionTable(name = "recipe_ingredients", joinColumns = @JoinColumn(name = "recipe_id"))
+    @OrderColumn(name = "list_index")
     @Column(name = "ingredient")
     private List<String> ingredients = new ArrayList<>();
 
     @ElementCollection
     @CollectionTable(name = "recipe_utensils", joinColumns = @JoinColumn(name = "recipe_id"))
+    @OrderColumn(name = "list_index")
     @Column(name = "utensil")
     private List<String> utensils = new ArrayList<>();
 
@@ -48,6 +52,7 @@ public class Recipe {
 
     @ElementCollection
     @CollectionTable(name = "recipe_instructions", joinColumns = @JoinColumn(name = "recipe_id"))
+    @OrderColumn(name = "list_index")
     @Column(name = "instruction", length = 2000)
     private List<String> instructions = new ArrayList<>();
 
@@ -57,9 +62,38 @@ public class Recipe {
 
     @ElementCollection
     @CollectionTable(name = "recipe_images", joinColumns = @JoinColumn(name = "recipe_id"))
+    @OrderColumn(name = "list_index")
     @Column(name = "image_url")
     private List<String> images = new ArrayList<>();
 
+    // Rating aggregates, kept in step with tbl_rating by RecipeRepository.applyRatingChange.
+    // Never written through the entity so a concurrent rating can't be overwritten by a stale copy;
+    // the counters on Chef and User follow the same pattern.
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long ratingSum;
+
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long ratingCount;
+
+    @Column(name = "rating_one_star", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long ratingOneStar;
+
+    @Column(name = "rating_two_star", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long ratingTwoStar;
+
+    @Column(name = "rating_three_star", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long ratingThreeStar;
+
+    @Column(name = "rating_four_star", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long ratingFourStar;
+
+    @Column(name = "rating_five_star", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long ratingFiveStar;
+
+    // Rows in user_favorites for this recipe, kept in step by RecipeRepository.applyFavoriteChange
+    @Column(name = "favorite_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long favoriteCount;
+
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ReviewEntity> reviews = new ArrayList<>();
 
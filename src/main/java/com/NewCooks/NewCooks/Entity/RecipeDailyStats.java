@@ -0,0 +1,46 @@
+package com.NewCooks.NewCooks.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// One UTC day of review/rating activity on a recipe, written only by AnalyticsRollups upserts
+@Entity
+@Table(
+        name = "tbl_recipe_daily_stats",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"recipe_id", "day"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecipeDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    // Net change in reviews/ratings that day: deletes count negative
+    @Column(nullable = false)
+    private long reviewsAdded;
+
+    @Column(nullable = false)
+    private long ratingsAdded;
+
+    // Every rating submitted that day, new or changed, and the stars given; deletes don't count
+    @Column(nullable = false)
+    private long ratingsSubmitted;
+
+    @Column(nullable = false)
+    private long ratingStarsSubmitted;
+}
@@ -3,12 +3,19 @@ package com.NewCooks.NewCooks.Entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Table(
         name = "tbl_review",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"user_id", "recipe_id"})
+        },
+        indexes = {
+                @Index(name = "idx_review_recipe_id", columnList = "recipe_id, id")
         }
 )
 @Getter
@@ -32,4 +39,12 @@ public class ReviewEntity {
 
     @Column(nullable = false, length = 2000)
     private String reviewText;
+
+    // Null for rows written before these columns existed
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
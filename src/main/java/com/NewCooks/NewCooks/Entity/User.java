@@ -40,6 +40,16 @@ public class User {
     @Column(name = "about_me", length = 1000)
     private String aboutMe;
 
+    // Analytics counters, kept in step by UserRepository.applyAnalyticsChange (read-only here, see Recipe.ratingSum)
+    @Column(name = "analytics_favorite_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long analyticsFavoriteCount;
+
+    @Column(name = "analytics_review_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long analyticsReviewCount;
+
+    @Column(name = "analytics_rating_count", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long analyticsRatingCount;
+
     @ManyToMany
     @JoinTable(
             name = "user_favorites",
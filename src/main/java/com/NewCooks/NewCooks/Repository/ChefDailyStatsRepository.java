@@ -0,0 +1,36 @@
+package com.NewCooks.NewCooks.Repository;
+
+import com.NewCooks.NewCooks.Entity.ChefDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ChefDailyStatsRepository extends JpaRepository<ChefDailyStats, Long> {
+
+    // Adds to the bucket of the chef who owns the recipe, creating it on first activity of the day
+    @Modifying
+    @Query(value = """
+            INSERT INTO tbl_chef_daily_stats (chef_id, day, reviews_added, ratings_added, ratings_submitted, rating_stars_submitted)
+            SELECT r.chef_id, :day, :reviews, :ratings, CASE WHEN :stars > 0 THEN 1 ELSE 0 END, :stars FROM tbl_recipe r WHERE r.recipe_id = :recipeId
+            ON CONFLICT (chef_id, day) DO UPDATE SET
+                reviews_added = tbl_chef_daily_stats.reviews_added + EXCLUDED.reviews_added,
+                ratings_added = tbl_chef_daily_stats.ratings_added + EXCLUDED.ratings_added,
+                ratings_submitted = tbl_chef_daily_stats.ratings_submitted + EXCLUDED.ratings_submitted,
+                rating_stars_submitted = tbl_chef_daily_stats.rating_stars_submitted + EXCLUDED.rating_stars_submitted
+            """, nativeQuery = true)
+    int addForRecipe(@Param("recipeId") Long recipeId,
+                     @Param("day") LocalDate day,
+                     @Param("reviews") long reviews,
+                     @Param("ratings") long ratings,
+                     @Param("stars") int stars);
+
+    // One row: [reviewsAdded, ratingsAdded, ratingsSubmitted, ratingStarsSubmitted] summed over the buckets from the given day on
+    @Query("SELECT COALESCE(SUM(s.reviewsAdded), 0), COALESCE(SUM(s.ratingsAdded), 0), " +
+            "COALESCE(SUM(s.ratingsSubmitted), 0), COALESCE(SUM(s.ratingStarsSubmitted), 0) " +
+            "FROM ChefDailyStats s WHERE s.chefId = :chefId AND s.day >= :from")
+    List<Object[]> sumSince(@Param("chefId") Long chefId, @Param("from") LocalDate from);
+}
@@ -1,13 +1,12 @@
 package com.NewCooks.NewCooks.Repository;
 
 import com.NewCooks.NewCooks.Entity.Chef;
-import com.NewCooks.NewCooks.Entity.Recipe;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,11 +15,64 @@ public interface ChefRepository extends JpaRepository<Chef, Long> {
     boolean existsByEmail(String email);
     Optional<Chef> findByActivationToken(String token);
 
-    @Query("SELECT r FROM Recipe r WHERE r.chef.id = :chefId " +
-            "AND (LOWER(r.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(r.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    List<Recipe> searchRecipesByChefAndKeyword(@Param("chefId") Long chefId,
-                                               @Param("keyword") String keyword);
+    // Adjusts a chef's analytics counters in place; callers must run inside a transaction
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_chef SET
+                analytics_recipe_count = analytics_recipe_count + :recipeDelta,
+                analytics_review_count = analytics_review_count + :reviewDelta,
+                analytics_rating_sum = analytics_rating_sum + :ratingSumDelta,
+                analytics_rating_count = analytics_rating_count + :ratingCountDelta
+            WHERE id = :chefId
+            """, nativeQuery = true)
+    int applyAnalyticsChange(@Param("chefId") Long chefId,
+                             @Param("recipeDelta") long recipeDelta,
+                             @Param("reviewDelta") long reviewDelta,
+                             @Param("ratingSumDelta") long ratingSumDelta,
+                             @Param("ratingCountDelta") long ratingCountDelta);
 
+    // Same, for the chef who owns the recipe, without loading either entity
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_chef SET
+                analytics_review_count = analytics_review_count + :reviewDelta,
+                analytics_rating_sum = analytics_rating_sum + :ratingSumDelta,
+                analytics_rating_count = analytics_rating_count + :ratingCountDelta
+            WHERE id = (SELECT chef_id FROM tbl_recipe WHERE recipe_id = :recipeId)
+            """, nativeQuery = true)
+    int applyAnalyticsChangeForRecipe(@Param("recipeId") Long recipeId,
+                                      @Param("reviewDelta") long reviewDelta,
+                                      @Param("ratingSumDelta") long ratingSumDelta,
+                                      @Param("ratingCountDelta") long ratingCountDelta);
+
+    // Takes a recipe, with its reviews and ratings, out of its chef's counters; run before deleting it
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_chef SET
+                analytics_recipe_count = analytics_recipe_count - 1,
+                analytics_review_count = analytics_review_count - (SELECT COUNT(*) FROM tbl_review WHERE recipe_id = :recipeId),
+                analytics_rating_sum = analytics_rating_sum - (SELECT COALESCE(SUM(rating_value), 0) FROM tbl_rating WHERE recipe_id = :recipeId),
+                analytics_rating_count = analytics_rating_count - (SELECT COUNT(*) FROM tbl_rating WHERE recipe_id = :recipeId)
+            WHERE id = (SELECT chef_id FROM tbl_recipe WHERE recipe_id = :recipeId)
+            """, nativeQuery = true)
+    int removeRecipeFromAnalytics(@Param("recipeId") Long recipeId);
+
+    // Rebuilds the analytics counters of chefs with fromId <= id < toId from tbl_recipe, tbl_review and tbl_rating
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_chef c SET
+                analytics_recipe_count = (SELECT COUNT(*) FROM tbl_recipe r WHERE r.chef_id = c.id),
+                analytics_review_count = (SELECT COUNT(*) FROM tbl_review v
+                                          JOIN tbl_recipe r ON r.recipe_id = v.recipe_id WHERE r.chef_id = c.id),
+                analytics_rating_sum = (SELECT COALESCE(SUM(t.rating_value), 0) FROM tbl_rating t
+                                        JOIN tbl_recipe r ON r.recipe_id = t.recipe_id WHERE r.chef_id = c.id),
+                analytics_rating_count = (SELECT COUNT(*) FROM tbl_rating t
+                                          JOIN tbl_recipe r ON r.recipe_id = t.recipe_id WHERE r.chef_id = c.id)
+            WHERE c.id >= :fromId AND c.id < :toId
+            """, nativeQuery = true)
+    int recomputeAnalytics(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM tbl_chef", nativeQuery = true)
+    long findMaxChefId();
 
 }
@@ -0,0 +1,7 @@
+package com.NewCooks.NewCooks.Repository;
+
+import com.NewCooks.NewCooks.Entity.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+}
@@ -0,0 +1,27 @@
+package com.NewCooks.NewCooks.Repository;
+
+import com.NewCooks.NewCooks.Entity.MediaAsset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MediaAssetRepository extends JpaRepository<MediaAsset, Long> {
+
+    Optional<MediaAsset> findByContentHash(String contentHash);
+
+    List<MediaAsset> findByUrlIn(Collection<String> urls);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<MediaAsset> findByPublicId(String publicId);
+
+    @Modifying
+    @Query("UPDATE MediaAsset a SET a.refCount = a.refCount + 1 WHERE a.contentHash = :hash")
+    int incrementRefCount(@Param("hash") String contentHash);
+}
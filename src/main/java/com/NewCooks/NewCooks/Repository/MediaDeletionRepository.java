@@ -0,0 +1,21 @@
+package com.NewCooks.NewCooks.Repository;
+
+import com.NewCooks.NewCooks.Entity.MediaDeletion;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface MediaDeletionRepository extends OutboxRepository<MediaDeletion> {
+
+    @Override
+    @Query(value = """
+            SELECT * FROM tbl_media_deletion
+            WHERE next_attempt_at <= :now
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<MediaDeletion> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+}
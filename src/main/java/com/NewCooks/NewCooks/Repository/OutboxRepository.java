@@ -0,0 +1,16 @@
+package com.NewCooks.NewCooks.Repository;
+
+import com.NewCooks.NewCooks.Entity.OutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.time.Instant;
+import java.util.List;
+
+@NoRepositoryBean
+public interface OutboxRepository<T extends OutboxEntry> extends JpaRepository<T, Long> {
+
+    // Locks up to limit due rows, oldest first, with FOR UPDATE SKIP LOCKED so concurrent workers
+    // (other instances) pick disjoint batches
+    List<T> lockDue(Instant now, int limit);
+}
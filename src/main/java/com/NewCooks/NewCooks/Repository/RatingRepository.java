@@ -2,28 +2,57 @@ package com.NewCooks.NewCooks.Repository;
 
 import com.NewCooks.NewCooks.Entity.RatingEntity;
 import com.NewCooks.NewCooks.Entity.Recipe;
-import com.NewCooks.NewCooks.Entity.User;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface RatingRepository extends JpaRepository<RatingEntity, Long> {
-    Optional<RatingEntity> findByUserAndRecipe(User user, Recipe recipe);
+    Optional<RatingEntity> findByUser_UserIdAndRecipe_RecipeId(Long userId, Long recipeId);
     List<RatingEntity> findByRecipe(Recipe recipe);
-    List<RatingEntity> findByRecipeIn(List<Recipe> recipes);
 
-    @Query("SELECT AVG(r.ratingValue) FROM RatingEntity r WHERE r.recipe = :recipe")
-    Double findAverageRatingByRecipe(@Param("recipe") Recipe recipe);
+    // Insert-or-update in one statement. prev locks an existing row before the upsert touches it, so its
+    // value is the one being replaced. Returns [id, inserted, previousStars, userName, userEmail], or no
+    // row if the recipe doesn't exist. previousStars is null both for a fresh insert and when a
+    // concurrent first rating won the insert; the caller has to tell those apart by `inserted`.
+    @Query(value = """
+            WITH prev AS (
+                SELECT rating_value FROM tbl_rating
+                WHERE user_id = :userId AND recipe_id = :recipeId
+                FOR UPDATE
+            ), up AS (
+                INSERT INTO tbl_rating (user_id, recipe_id, rating_value, created_at, updated_at)
+                SELECT :userId, r.recipe_id, :stars, now(), now()
+                FROM tbl_recipe r LEFT JOIN prev ON true
+                WHERE r.recipe_id = :recipeId
+                ON CONFLICT (user_id, recipe_id)
+                DO UPDATE SET rating_value = EXCLUDED.rating_value, updated_at = EXCLUDED.updated_at
+                RETURNING id, (xmax = 0) AS inserted
+            )
+            SELECT up.id, up.inserted, (SELECT rating_value FROM prev), u.name, u.email
+            FROM up JOIN tbl_user u ON u.user_id = :userId
+            """, nativeQuery = true)
+    List<Object[]> upsert(@Param("userId") Long userId, @Param("recipeId") Long recipeId, @Param("stars") int stars);
 
-    @Query("SELECT r.ratingValue, COUNT(r) FROM RatingEntity r WHERE r.recipe = :recipe GROUP BY r.ratingValue")
-    List<Object[]> countRatingsByStars(@Param("recipe") Recipe recipe);
+    // Deletes the user's rating of the recipe; returns [ratingValue, createdAt] of the deleted row, or no row
+    @Query(value = """
+            WITH gone AS (
+                DELETE FROM tbl_rating
+                WHERE user_id = :userId AND recipe_id = :recipeId
+                RETURNING rating_value, created_at
+            )
+            SELECT rating_value, created_at FROM gone
+            """, nativeQuery = true)
+    List<Object[]> deleteReturning(@Param("userId") Long userId, @Param("recipeId") Long recipeId);
 
-    @Query("SELECT COUNT(r) FROM RatingEntity r WHERE r.user.id = :userId")
-    int countByUserId(@Param("userId") Long userId);
+    // [recipeId, ratingValue] for the user's ratings among the given recipes
+    @Query("SELECT r.recipe.recipeId, r.ratingValue FROM RatingEntity r " +
+            "WHERE r.user.userId = :userId AND r.recipe.recipeId IN :recipeIds")
+    List<Object[]> findStarsByUserForRecipes(@Param("userId") Long userId, @Param("recipeIds") Collection<Long> recipeIds);
 
 //    @Query("SELECT r.recipeId as recipeId, r.title as title, r.thumbnail as thumbnail, " +
 //            "AVG(ra.ratingValue) as averageRating, COUNT(ra.id) as totalRatings " +
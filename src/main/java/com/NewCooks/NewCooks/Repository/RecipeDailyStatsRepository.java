@@ -0,0 +1,40 @@
+package com.NewCooks.NewCooks.Repository;
+
+import com.NewCooks.NewCooks.Entity.RecipeDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RecipeDailyStatsRepository extends JpaRepository<RecipeDailyStats, Long> {
+
+    // Adds to the recipe's bucket for the day, creating it on first activity of the day
+    @Modifying
+    @Query(value = """
+            INSERT INTO tbl_recipe_daily_stats (recipe_id, day, reviews_added, ratings_added, ratings_submitted, rating_stars_submitted)
+            VALUES (:recipeId, :day, :reviews, :ratings, CASE WHEN :stars > 0 THEN 1 ELSE 0 END, :stars)
+            ON CONFLICT (recipe_id, day) DO UPDATE SET
+                reviews_added = tbl_recipe_daily_stats.reviews_added + EXCLUDED.reviews_added,
+                ratings_added = tbl_recipe_daily_stats.ratings_added + EXCLUDED.ratings_added,
+                ratings_submitted = tbl_recipe_daily_stats.ratings_submitted + EXCLUDED.ratings_submitted,
+                rating_stars_submitted = tbl_recipe_daily_stats.rating_stars_submitted + EXCLUDED.rating_stars_submitted
+            """, nativeQuery = true)
+    int add(@Param("recipeId") Long recipeId,
+            @Param("day") LocalDate day,
+            @Param("reviews") long reviews,
+            @Param("ratings") long ratings,
+            @Param("stars") int stars);
+
+    // One row: [reviewsAdded, ratingsAdded, ratingsSubmitted, ratingStarsSubmitted] summed over the buckets from the given day on
+    @Query("SELECT COALESCE(SUM(s.reviewsAdded), 0), COALESCE(SUM(s.ratingsAdded), 0), " +
+            "COALESCE(SUM(s.ratingsSubmitted), 0), COALESCE(SUM(s.ratingStarsSubmitted), 0) " +
+            "FROM RecipeDailyStats s WHERE s.recipeId = :recipeId AND s.day >= :from")
+    List<Object[]> sumSince(@Param("recipeId") Long recipeId, @Param("from") LocalDate from);
+
+    @Modifying
+    @Query("DELETE FROM RecipeDailyStats s WHERE s.recipeId = :recipeId")
+    int deleteByRecipeId(@Param("recipeId") Long recipeId);
+}
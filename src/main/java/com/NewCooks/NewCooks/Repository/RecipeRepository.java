@@ -1,23 +1,176 @@
 package com.NewCooks.NewCooks.Repository;
 
+import com.NewCooks.NewCooks.DTO.RecipeCardDTO;
 import com.NewCooks.NewCooks.Entity.Recipe;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
+    @EntityGraph(attributePaths = "chef")
+    Page<Recipe> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "chef")
     List<Recipe> findByChefId(Long chefId);
     boolean existsByTitleIgnoreCaseAndChefId(String title, Long chefId);
 
-    @Query("SELECT COUNT(r) FROM Recipe r WHERE r.chef.id = :chefId")
-    int countByChefId(@Param("chefId") Long chefId);
+    @Query("SELECT r.chef.id FROM Recipe r WHERE r.recipeId = :recipeId")
+    Optional<Long> findChefIdByRecipeId(@Param("recipeId") Long recipeId);
+
+    // [recipeId, chefId, title, description] for every recipe, used to seed RecipeSearchIndex
+    @Query("SELECT r.recipeId, r.chef.id, r.title, r.description FROM Recipe r")
+    List<Object[]> findAllSearchableText();
+
+    // [recipeId, value] for every element-collection row, used to seed IngredientIndex
+    @Query("SELECT r.recipeId, i FROM Recipe r JOIN r.ingredients i")
+    List<Object[]> findAllIngredients();
+
+    @Query("SELECT r.recipeId, u FROM Recipe r JOIN r.utensils u")
+    List<Object[]> findAllUtensils();
+
+    // Keyset feed queries: callers pass PageRequest.of(0, n) so only a LIMIT is applied, never an OFFSET
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.chef ORDER BY r.recipeId DESC")
+    List<Recipe> findNewestFeed(Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.chef WHERE r.recipeId < :lastId ORDER BY r.recipeId DESC")
+    List<Recipe> findNewestFeedAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.chef ORDER BY r.title ASC, r.recipeId ASC")
+    List<Recipe> findTitleFeed(Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.chef " +
+            "WHERE r.title > :lastTitle OR (r.title = :lastTitle AND r.recipeId > :lastId) " +
+            "ORDER BY r.title ASC, r.recipeId ASC")
+    List<Recipe> findTitleFeedAfter(@Param("lastTitle") String lastTitle,
+                                    @Param("lastId") Long lastId,
+                                    Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r JOIN FETCH r.chef JOIN r.favoritedBy u WHERE u.userId = :userId ORDER BY r.recipeId")
+    List<Recipe> findFavoritesByUserId(@Param("userId") Long userId);
+
+    // Card projections: scalar columns of tbl_recipe + chef name and thumbnail variants only,
+    // never the element-collection tables
+    String CARD_SELECT = "SELECT new com.NewCooks.NewCooks.DTO.RecipeCardDTO(" +
+            "r.recipeId, r.title, r.thumbnail, SUBSTRING(r.description, 1, 121), c.id, c.name, " +
+            "ma.variantSrcset, ma.placeholder, r.favoriteCount) " +
+            "FROM Recipe r JOIN r.chef c LEFT JOIN MediaAsset ma ON ma.url = r.thumbnail ";
+
+    @Query(value = CARD_SELECT + "ORDER BY r.recipeId DESC",
+            countQuery = "SELECT COUNT(r) FROM Recipe r")
+    Page<RecipeCardDTO> findAllCards(Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE r.recipeId IN :ids")
+    List<RecipeCardDTO> findCardsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(CARD_SELECT + "WHERE c.id = :chefId ORDER BY r.recipeId DESC")
+    List<RecipeCardDTO> findCardsByChefId(@Param("chefId") Long chefId);
+
+    @Query(CARD_SELECT + "JOIN r.favoritedBy u WHERE u.userId = :userId ORDER BY r.recipeId")
+    List<RecipeCardDTO> findFavoriteCardsByUserId(@Param("userId") Long userId);
+
+    // Element-collection rows for a batch of recipes, as [recipeId, value] pairs in list order
+    @Query("SELECT r.recipeId, i FROM Recipe r JOIN r.ingredients i WHERE r.recipeId IN :ids ORDER BY r.recipeId, index(i)")
+    List<Object[]> findIngredientsByRecipeIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.recipeId, u FROM Recipe r JOIN r.utensils u WHERE r.recipeId IN :ids ORDER BY r.recipeId, index(u)")
+    List<Object[]> findUtensilsByRecipeIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.recipeId, i FROM Recipe r JOIN r.instructions i WHERE r.recipeId IN :ids ORDER BY r.recipeId, index(i)")
+    List<Object[]> findInstructionsByRecipeIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.recipeId, i FROM Recipe r JOIN r.images i WHERE r.recipeId IN :ids ORDER BY r.recipeId, index(i)")
+    List<Object[]> findImagesByRecipeIds(@Param("ids") Collection<Long> ids);
+
+    // Moves one rating from oldStars to newStars (0 = no rating) in a single atomic UPDATE
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_recipe SET
+                rating_sum = rating_sum + :newStars - :oldStars,
+                rating_count = rating_count + (CASE WHEN :newStars > 0 THEN 1 ELSE 0 END) - (CASE WHEN :oldStars > 0 THEN 1 ELSE 0 END),
+                rating_one_star = rating_one_star + (CASE WHEN :newStars = 1 THEN 1 ELSE 0 END) - (CASE WHEN :oldStars = 1 THEN 1 ELSE 0 END),
+                rating_two_star = rating_two_star + (CASE WHEN :newStars = 2 THEN 1 ELSE 0 END) - (CASE WHEN :oldStars = 2 THEN 1 ELSE 0 END),
+                rating_three_star = rating_three_star + (CASE WHEN :newStars = 3 THEN 1 ELSE 0 END) - (CASE WHEN :oldStars = 3 THEN 1 ELSE 0 END),
+                rating_four_star = rating_four_star + (CASE WHEN :newStars = 4 THEN 1 ELSE 0 END) - (CASE WHEN :oldStars = 4 THEN 1 ELSE 0 END),
+                rating_five_star = rating_five_star + (CASE WHEN :newStars = 5 THEN 1 ELSE 0 END) - (CASE WHEN :oldStars = 5 THEN 1 ELSE 0 END)
+            WHERE recipe_id = :recipeId
+            """, nativeQuery = true)
+    int applyRatingChange(@Param("recipeId") Long recipeId,
+                          @Param("oldStars") int oldStars,
+                          @Param("newStars") int newStars);
+
+    // Favorites are toggled straight on the join table, never through User.favoriteRecipes;
+    // both return the number of rows changed (0 or 1), callers must run inside a transaction
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_favorites (user_id, recipe_id)
+            SELECT :userId, recipe_id FROM tbl_recipe WHERE recipe_id = :recipeId
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertFavorite(@Param("userId") Long userId, @Param("recipeId") Long recipeId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_favorites WHERE user_id = :userId AND recipe_id = :recipeId", nativeQuery = true)
+    int deleteFavorite(@Param("userId") Long userId, @Param("recipeId") Long recipeId);
+
+    @Query(value = "SELECT recipe_id FROM user_favorites WHERE user_id = :userId AND recipe_id IN (:recipeIds)", nativeQuery = true)
+    List<Long> findFavoriteRecipeIds(@Param("userId") Long userId, @Param("recipeIds") Collection<Long> recipeIds);
+
+    // The owning side is User, so deleting a recipe doesn't clear these rows by itself
+    @Modifying
+    @Query(value = "DELETE FROM user_favorites WHERE recipe_id = :recipeId", nativeQuery = true)
+    int deleteAllFavoritesOfRecipe(@Param("recipeId") Long recipeId);
+
+    @Modifying
+    @Query(value = "UPDATE tbl_recipe SET favorite_count = favorite_count + :delta WHERE recipe_id = :recipeId", nativeQuery = true)
+    int applyFavoriteChange(@Param("recipeId") Long recipeId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_recipe r SET
+                favorite_count = (SELECT COUNT(*) FROM user_favorites f WHERE f.recipe_id = r.recipe_id)
+            WHERE r.recipe_id >= :fromId AND r.recipe_id < :toId
+            """, nativeQuery = true)
+    int recomputeFavoriteCounts(@Param("fromId") long fromId, @Param("toId") long toId);
 
-    @Query("SELECT r FROM Recipe r WHERE LOWER(r.title) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Recipe> searchRecipesByKeyword(@Param("keyword") String keyword);
+    // Rebuilds the rating aggregates of recipes with fromId <= recipe_id < toId from tbl_rating
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_recipe r SET
+                rating_sum = s.total,
+                rating_count = s.cnt,
+                rating_one_star = s.one_star,
+                rating_two_star = s.two_star,
+                rating_three_star = s.three_star,
+                rating_four_star = s.four_star,
+                rating_five_star = s.five_star
+            FROM (
+                SELECT r2.recipe_id,
+                       COALESCE(SUM(t.rating_value), 0) AS total,
+                       COUNT(t.id) AS cnt,
+                       SUM(CASE WHEN t.rating_value = 1 THEN 1 ELSE 0 END) AS one_star,
+                       SUM(CASE WHEN t.rating_value = 2 THEN 1 ELSE 0 END) AS two_star,
+                       SUM(CASE WHEN t.rating_value = 3 THEN 1 ELSE 0 END) AS three_star,
+                       SUM(CASE WHEN t.rating_value = 4 THEN 1 ELSE 0 END) AS four_star,
+                       SUM(CASE WHEN t.rating_value = 5 THEN 1 ELSE 0 END) AS five_star
+                FROM tbl_recipe r2
+                LEFT JOIN tbl_rating t ON t.recipe_id = r2.recipe_id
+                WHERE r2.recipe_id >= :fromId AND r2.recipe_id < :toId
+                GROUP BY r2.recipe_id
+            ) s
+            WHERE r.recipe_id = s.recipe_id
+            """, nativeQuery = true)
+    int recomputeRatingAggregates(@Param("fromId") long fromId, @Param("toId") long toId);
 
+    @Query(value = "SELECT COALESCE(MAX(recipe_id), 0) FROM tbl_recipe", nativeQuery = true)
+    long findMaxRecipeId();
 }
@@ -1,5 +1,6 @@
 package com.NewCooks.NewCooks.Repository;
 
+import com.NewCooks.NewCooks.DTO.ReviewResponseDTO;
 import com.NewCooks.NewCooks.Entity.Recipe;
 import com.NewCooks.NewCooks.Entity.ReviewEntity;
 import com.NewCooks.NewCooks.Entity.User;
@@ -8,33 +9,57 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ReviewRepository extends JpaRepository<ReviewEntity, Long> {
     Optional<ReviewEntity> findByUserAndRecipe(User user, Recipe recipe);
+    Optional<ReviewEntity> findByUser_UserIdAndRecipe_RecipeId(Long userId, Long recipeId);
     List<ReviewEntity> findByRecipe(Recipe recipe);
-    List<ReviewEntity> findByRecipe_RecipeId(Long recipeId);
-    List<ReviewEntity> findByRecipe_RecipeIdIn(List<Long> recipeIds);
 
-    @Query("SELECT r.recipeId as recipeId, r.title as title, r.thumbnail as thumbnail, " +
-            "COUNT(re.id) as totalReviews " +
+    // Keyset pages of a recipe's reviews, newest first, projected with the reviewer's details in one query.
+    // Callers pass PageRequest.of(0, n) so only a LIMIT is applied.
+    String REVIEW_SELECT = "SELECT new com.NewCooks.NewCooks.DTO.ReviewResponseDTO(" +
+            "re.id, u.name, re.recipe.recipeId, re.reviewText, u.profilePicture, u.aboutMe) " +
+            "FROM ReviewEntity re JOIN re.user u ";
+
+    @Query(REVIEW_SELECT + "WHERE re.recipe.recipeId = :recipeId ORDER BY re.id DESC")
+    List<ReviewResponseDTO> findPageByRecipe(@Param("recipeId") Long recipeId, Pageable pageable);
+
+    @Query(REVIEW_SELECT + "WHERE re.recipe.recipeId = :recipeId AND re.id < :lastId ORDER BY re.id DESC")
+    List<ReviewResponseDTO> findPageByRecipeAfter(@Param("recipeId") Long recipeId,
+                                                  @Param("lastId") Long lastId,
+                                                  Pageable pageable);
+
+    // [recipeId, chefId, title, thumbnail, reviewCount] for every recipe, used to seed ReviewLeaderboard
+    @Query("SELECT r.recipeId, r.chef.id, r.title, r.thumbnail, COUNT(re.id) " +
             "FROM Recipe r LEFT JOIN r.reviews re " +
-            "GROUP BY r.recipeId, r.title, r.thumbnail " +
-            "ORDER BY COUNT(re.id) DESC")
-    List<Object[]> findMostReviewedRecipes(Pageable pageable);
-
-    @Query("""
-       SELECT r.id, r.title, r.thumbnail, COUNT(rv.id) AS totalReviews
-       FROM Recipe r
-       LEFT JOIN r.reviews rv
-       WHERE r.chef.id = :chefId
-       GROUP BY r.id, r.title, r.thumbnail
-       ORDER BY totalReviews DESC
-       """)
-    List<Object[]> findMostReviewedRecipesByChefId(@Param("chefId") Long chefId, Pageable pageable);
-
-    @Query("SELECT COUNT(r) FROM ReviewEntity r WHERE r.user.id = :userId")
-    int countByUserId(@Param("userId") Long userId);
+            "GROUP BY r.recipeId, r.chef.id, r.title, r.thumbnail")
+    List<Object[]> countReviewsPerRecipe();
+
+    // Insert-or-update in one statement; returns [id, inserted, userName, profilePicture, aboutMe],
+    // or no row if the recipe doesn't exist
+    @Query(value = """
+            WITH up AS (
+                INSERT INTO tbl_review (user_id, recipe_id, review_text, created_at, updated_at)
+                SELECT :userId, r.recipe_id, :reviewText, now(), now()
+                FROM tbl_recipe r
+                WHERE r.recipe_id = :recipeId
+                ON CONFLICT (user_id, recipe_id)
+                DO UPDATE SET review_text = EXCLUDED.review_text, updated_at = EXCLUDED.updated_at
+                RETURNING id, (xmax = 0) AS inserted
+            )
+            SELECT up.id, up.inserted, u.name, u.profile_picture, u.about_me
+            FROM up JOIN tbl_user u ON u.user_id = :userId
+            """, nativeQuery = true)
+    List<Object[]> upsert(@Param("userId") Long userId,
+                          @Param("recipeId") Long recipeId,
+                          @Param("reviewText") String reviewText);
+
+    // [recipeId, reviewId, reviewText] for the user's reviews among the given recipes
+    @Query("SELECT r.recipe.recipeId, r.id, r.reviewText FROM ReviewEntity r " +
+            "WHERE r.user.userId = :userId AND r.recipe.recipeId IN :recipeIds")
+    List<Object[]> findByUserForRecipes(@Param("userId") Long userId, @Param("recipeIds") Collection<Long> recipeIds);
 
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package com.NewCooks.NewCooks.Repository;
 
 import com.NewCooks.NewCooks.Entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,49 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     Optional<User> findByActivationToken(String token);
+
+    // Adjusts a user's analytics counters in place; callers must run inside a transaction
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_user SET
+                analytics_favorite_count = analytics_favorite_count + :favoriteDelta,
+                analytics_review_count = analytics_review_count + :reviewDelta,
+                analytics_rating_count = analytics_rating_count + :ratingDelta
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int applyAnalyticsChange(@Param("userId") Long userId,
+                             @Param("favoriteDelta") long favoriteDelta,
+                             @Param("reviewDelta") long reviewDelta,
+                             @Param("ratingDelta") long ratingDelta);
+
+    // Takes a recipe's reviews, ratings and favorites out of their users' counters; run before deleting it
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_user u SET
+                analytics_favorite_count = analytics_favorite_count
+                    - (SELECT COUNT(*) FROM user_favorites f WHERE f.recipe_id = :recipeId AND f.user_id = u.user_id),
+                analytics_review_count = analytics_review_count
+                    - (SELECT COUNT(*) FROM tbl_review v WHERE v.recipe_id = :recipeId AND v.user_id = u.user_id),
+                analytics_rating_count = analytics_rating_count
+                    - (SELECT COUNT(*) FROM tbl_rating t WHERE t.recipe_id = :recipeId AND t.user_id = u.user_id)
+            WHERE u.user_id IN (
+                SELECT user_id FROM user_favorites WHERE recipe_id = :recipeId
+                UNION SELECT user_id FROM tbl_review WHERE recipe_id = :recipeId
+                UNION SELECT user_id FROM tbl_rating WHERE recipe_id = :recipeId)
+            """, nativeQuery = true)
+    int removeRecipeFromAnalytics(@Param("recipeId") Long recipeId);
+
+    // Rebuilds the analytics counters of users with fromId <= user_id < toId from user_favorites, tbl_review and tbl_rating
+    @Modifying
+    @Query(value = """
+            UPDATE tbl_user u SET
+                analytics_favorite_count = (SELECT COUNT(*) FROM user_favorites f WHERE f.user_id = u.user_id),
+                analytics_review_count = (SELECT COUNT(*) FROM tbl_review v WHERE v.user_id = u.user_id),
+                analytics_rating_count = (SELECT COUNT(*) FROM tbl_rating t WHERE t.user_id = u.user_id)
+            WHERE u.user_id >= :fromId AND u.user_id < :toId
+            """, nativeQuery = true)
+    int recomputeAnalytics(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query(value = "SELECT COALESCE(MAX(user_id), 0) FROM tbl_user", nativeQuery = true)
+    long findMaxUserId();
 }
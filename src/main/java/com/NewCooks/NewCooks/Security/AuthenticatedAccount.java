@@ -0,0 +1,36 @@
+package com.NewCooks.NewCooks.Security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+
+/**
+ * Principal set by JWTAuthenticationFilter. Carries the chef/user id from the token so
+ * controllers can resolve the caller without a database lookup. getName() stays the email,
+ * so Principal#getName() and Authentication#getName() keep working as before.
+ */
+public record AuthenticatedAccount(Long id, String email, String role) implements Principal {
+
+    public static final String ROLE_CHEF = "ROLE_CHEF";
+    public static final String ROLE_USER = "ROLE_USER";
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Long chefId() {
+        if (!ROLE_CHEF.equals(role)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Chef account required");
+        }
+        return id;
+    }
+
+    public Long userId() {
+        if (!ROLE_USER.equals(role)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User account required");
+        }
+        return id;
+    }
+}
@@ -35,21 +35,18 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             final String token = header.substring(7);
 
-            if (jwtUtil.validateToken(token)) {
-                // Extract email (username) and role from JWT token
-                final String email = jwtUtil.getUsernameFromToken(token);
-                final String role = jwtUtil.getRoleFromToken(token);
-
+            // One signature check (or a cache hit) yields both the email and the role
+            jwtUtil.verify(token).ifPresent(verified -> {
                 // Set the authentication with ROLE_CHEF or ROLE_USER accordingly
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(
-                                email,
+                                new AuthenticatedAccount(verified.accountId(), verified.username(), verified.role()),
                                 null,
-                                List.of(new SimpleGrantedAuthority(role))
+                                List.of(new SimpleGrantedAuthority(verified.role()))
                         );
 
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+            });
         }
 
         filterChain.doFilter(request, response);
@@ -1,46 +1,139 @@
 package com.NewCooks.NewCooks.Security;
 
+import com.NewCooks.NewCooks.Entity.Chef;
+import com.NewCooks.NewCooks.Entity.User;
+import com.NewCooks.NewCooks.Repository.ChefRepository;
+import com.NewCooks.NewCooks.Repository.UserRepository;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JWTUtil {
 
+    private final ChefRepository chefRepository;
+    private final UserRepository userRepository;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    public String generateToken(String username, String role) {
+    // How many recently verified tokens to remember so repeat requests skip signature checks
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    private Key signingKey;
+    private JwtParser parser;
+    // Lock-free reads on every request. Bounded by purging on insert rather than LRU order, which
+    // would make each get a write.
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    public JWTUtil(ChefRepository chefRepository, UserRepository userRepository) {
+        this.chefRepository = chefRepository;
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        // jwt.secret is base64, as the String-key jjwt APIs used to expect
+        signingKey = new SecretKeySpec(Decoders.BASE64.decode(jwtSecret), SignatureAlgorithm.HS256.getJcaName());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    // accountId is the chef id for ROLE_CHEF and the user id for ROLE_USER
+    public String generateToken(String username, String role, Long accountId) {
         return Jwts.builder()
                 .setSubject(username)
                 .claim("role", role)
+                .claim("uid", accountId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(SignatureAlgorithm.HS256, jwtSecret)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    // Verifies the signature and expiry once and extracts every claim we use; empty if the token is invalid
+    public Optional<VerifiedToken> verify(String token) {
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.remove(token);
+            return Optional.empty();
+        }
+
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
+            Claims c = parser.parseClaimsJws(token).getBody();
+            String role = c.get("role", String.class);
+            Long accountId = c.get("uid", Long.class);
+            if (accountId == null) {
+                // Issued before ids were embedded: resolve the id by email once, then serve it from the cache
+                accountId = legacyAccountId(c.getSubject(), role);
+                if (accountId == null) {
+                    return Optional.empty();
+                }
+            }
+            long expiresAt = c.getExpiration() != null ? c.getExpiration().getTime() : Long.MAX_VALUE;
+            VerifiedToken verified = new VerifiedToken(accountId, c.getSubject(), role, expiresAt);
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                purge();
+            }
+            verifiedTokens.put(token, verified);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
     }
 
+    // Tokens without a uid claim stay valid until they expire (jwt.expiration), so nobody is signed out by
+    // the deploy that added the claim; null if the account is gone
+    private Long legacyAccountId(String email, String role) {
+        if (email == null) {
+            return null;
+        }
+        if (AuthenticatedAccount.ROLE_CHEF.equals(role)) {
+            return chefRepository.findByEmail(email).map(Chef::getId).orElse(null);
+        }
+        if (AuthenticatedAccount.ROLE_USER.equals(role)) {
+            return userRepository.findByEmail(email).map(User::getUserId).orElse(null);
+        }
+        return null;
+    }
+
+    // Only runs on a cache miss at capacity: drop expired tokens, then arbitrary ones until a tenth
+    // of the room is free again, so the next misses don't all land here
+    private void purge() {
+        verifiedTokens.values().removeIf(VerifiedToken::isExpired);
+        int target = verifiedCacheSize - Math.max(1, verifiedCacheSize / 10);
+        Iterator<String> it = verifiedTokens.keySet().iterator();
+        while (verifiedTokens.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims c = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
-        return c.getSubject();
+        return verify(token).map(VerifiedToken::username).orElseThrow(() -> new JwtException("Invalid token"));
     }
 
     public String getRoleFromToken(String token) {
-        Claims c = Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
-        return c.get("role", String.class);
+        return verify(token).map(VerifiedToken::role).orElseThrow(() -> new JwtException("Invalid token"));
     }
 }
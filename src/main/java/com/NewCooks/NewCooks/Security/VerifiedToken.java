@@ -0,0 +1,9 @@
+package com.NewCooks.NewCooks.Security;
+
+// Claims of a bearer token whose signature and expiry have been checked
+public record VerifiedToken(Long accountId, String username, String role, long expiresAtMillis) {
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,91 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.DataMigration;
+import com.NewCooks.NewCooks.Repository.ChefRepository;
+import com.NewCooks.NewCooks.Repository.DataMigrationRepository;
+import com.NewCooks.NewCooks.Repository.RecipeRepository;
+import com.NewCooks.NewCooks.Repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Rebuilds the denormalised counters from the source tables for rows written before the counters
+ * existed. Each rebuild runs on the first boot that ships it, during startup so it finishes before
+ * this instance takes requests, and is then recorded in tbl_data_migration so later boots skip it.
+ * newcooks.aggregates.backfill-on-startup=true repeats every rebuild on a boot, as a repair; a
+ * recompute overwrites +delta updates that land on the same rows while it runs, so do that with
+ * writes quiesced. Each table is walked in id ranges, one short transaction per range, so only a
+ * batch of rows is locked at a time.
+ */
+@Service
+public class AggregateBackfillService {
+
+    private final RecipeRepository recipeRepository;
+    private final ChefRepository chefRepository;
+    private final UserRepository userRepository;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillOnStartup;
+    private final int batchSize;
+
+    public AggregateBackfillService(RecipeRepository recipeRepository,
+                                    ChefRepository chefRepository,
+                                    UserRepository userRepository,
+                                    DataMigrationRepository dataMigrationRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${newcooks.aggregates.backfill-on-startup:false}") boolean backfillOnStartup,
+                                    @Value("${newcooks.aggregates.backfill-batch-size:500}") int batchSize) {
+        this.recipeRepository = recipeRepository;
+        this.chefRepository = chefRepository;
+        this.userRepository = userRepository;
+        this.dataMigrationRepository = dataMigrationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.backfillOnStartup = backfillOnStartup;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    private record Rebuild(String name, LongSupplier maxId, RangeUpdate update) {
+    }
+
+    @FunctionalInterface
+    private interface RangeUpdate {
+        int apply(long fromId, long toId);
+    }
+
+    // Names are the tbl_data_migration keys: rename one only to have it run again
+    private List<Rebuild> rebuilds() {
+        return List.of(
+                new Rebuild("recipe-rating-aggregates", recipeRepository::findMaxRecipeId, recipeRepository::recomputeRatingAggregates),
+                new Rebuild("recipe-favorite-counts", recipeRepository::findMaxRecipeId, recipeRepository::recomputeFavoriteCounts),
+                new Rebuild("chef-analytics", chefRepository::findMaxChefId, chefRepository::recomputeAnalytics),
+                new Rebuild("user-analytics", userRepository::findMaxUserId, userRepository::recomputeAnalytics));
+    }
+
+    @PostConstruct
+    void backfillPending() {
+        for (Rebuild rebuild : rebuilds()) {
+            if (backfillOnStartup || !dataMigrationRepository.existsById(rebuild.name())) {
+                run(rebuild);
+            }
+        }
+    }
+
+    private void run(Rebuild rebuild) {
+        inBatches(rebuild.maxId(), rebuild.update());
+        dataMigrationRepository.save(new DataMigration(rebuild.name(), Instant.now()));
+    }
+
+    private void inBatches(LongSupplier maxId, RangeUpdate update) {
+        long last = maxId.getAsLong();
+        for (long start = 1; start <= last; start += batchSize) {
+            long from = start;
+            transactionTemplate.executeWithoutResult(status -> update.apply(from, from + batchSize));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.DTO.WindowAnalyticsDTO;
+import com.NewCooks.NewCooks.Repository.ChefDailyStatsRepository;
+import com.NewCooks.NewCooks.Repository.RecipeDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Daily per-recipe and per-chef buckets of review/rating activity, upserted in the same
+ * transaction as the write they describe, so "last N days" is a sum over at most N rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticsRollups {
+
+    public static final Set<Integer> SUPPORTED_WINDOWS = Set.of(7, 30, 90);
+
+    private final RecipeDailyStatsRepository recipeDailyStatsRepository;
+    private final ChefDailyStatsRepository chefDailyStatsRepository;
+
+    /**
+     * Records today's activity on a recipe: net review and rating count changes, plus the stars
+     * of a rating submitted (new or changed), or 0 if none was. Callers must be in a transaction.
+     */
+    public void record(Long recipeId, long reviewDelta, long ratingCountDelta, int submittedStars) {
+        if (reviewDelta == 0 && ratingCountDelta == 0 && submittedStars == 0) {
+            return;
+        }
+        LocalDate today = today();
+        recipeDailyStatsRepository.add(recipeId, today, reviewDelta, ratingCountDelta, submittedStars);
+        chefDailyStatsRepository.addForRecipe(recipeId, today, reviewDelta, ratingCountDelta, submittedStars);
+    }
+
+    /**
+     * Takes a deleted review or rating back out of the bucket of the day it was created, so a window
+     * only counts what was added during it. Rows with a null createdAt predate the rollups and were
+     * never counted in any bucket; like record, their removal is charged to today, so the windows
+     * still move with the totals.
+     */
+    public void recordRemoval(Long recipeId, Instant createdAt, long reviewDelta, long ratingCountDelta) {
+        LocalDate day = createdAt != null ? LocalDate.ofInstant(createdAt, ZoneOffset.UTC) : today();
+        recipeDailyStatsRepository.add(recipeId, day, reviewDelta, ratingCountDelta, 0);
+        chefDailyStatsRepository.addForRecipe(recipeId, day, reviewDelta, ratingCountDelta, 0);
+    }
+
+    // Recipe buckets go with the recipe; the chef's keep the history of what happened
+    public void recipeDeleted(Long recipeId) {
+        recipeDailyStatsRepository.deleteByRecipeId(recipeId);
+    }
+
+    @Transactional(readOnly = true)
+    public WindowAnalyticsDTO forChef(Long chefId, int days) {
+        return toDTO(days, chefDailyStatsRepository.sumSince(chefId, windowStart(days)));
+    }
+
+    @Transactional(readOnly = true)
+    public WindowAnalyticsDTO forRecipe(Long recipeId, int days) {
+        return toDTO(days, recipeDailyStatsRepository.sumSince(recipeId, windowStart(days)));
+    }
+
+    private LocalDate windowStart(int days) {
+        if (!SUPPORTED_WINDOWS.contains(days)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be one of 7, 30 or 90");
+        }
+        return today().minusDays(days - 1L);
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private WindowAnalyticsDTO toDTO(int days, List<Object[]> rows) {
+        Object[] row = rows.get(0);
+        long reviews = ((Number) row[0]).longValue();
+        long ratings = ((Number) row[1]).longValue();
+        long submitted = ((Number) row[2]).longValue();
+        long stars = ((Number) row[3]).longValue();
+        // Average of the ratings given during the window
+        double avgRating = submitted > 0 ? (double) stars / submitted : 0.0;
+        return new WindowAnalyticsDTO(days, reviews, ratings, avgRating);
+    }
+}
@@ -5,17 +5,14 @@ import com.NewCooks.NewCooks.DTO.ChefRecipeSearchSuggestionDTO;
 import com.NewCooks.NewCooks.DTO.ChefSignupDTO;
 import com.NewCooks.NewCooks.Entity.Chef;
 import com.NewCooks.NewCooks.Repository.ChefRepository;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.MailException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.Optional;
 
@@ -27,8 +24,13 @@ public class ChefService {
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
     private final CloudinaryService cloudinaryService;
-    private final Cloudinary cloudinary;
+    private final MediaUploadService mediaUploadService;
+    private final RecipeSearchIndex recipeSearchIndex;
 
+    @Value("${newcooks.search.max-results:20}")
+    private int maxSearchResults;
+
+    @Transactional
     public Chef registerChef(ChefSignupDTO dto, String appBaseUrl) {
         if (chefRepository.existsByEmail(dto.getEmail())) {
             throw new RuntimeException("Email already in use");
@@ -42,16 +44,22 @@ public class ChefService {
         chef.setActivationToken(UUID.randomUUID().toString());
         Chef saved = chefRepository.save(chef);
         String link = appBaseUrl + "/auth/activate?token=" + chef.getActivationToken();
-        try {
-            emailService.sendActivationEmail(saved.getEmail(), link);
-        } catch (MailException e) {
-            System.err.println("Failed to send activation email: " + e.getMessage());
-            throw new RuntimeException("Registration successful but failed to send activation email. Please contact support.");
-        }
+        // Queued in this transaction: the account and its activation email commit together
+        emailService.sendActivationEmail(saved.getEmail(), link);
 
         return saved;
     }
 
+    // Sets the new password and deactivates the account until the emailed link is followed
+    @Transactional
+    public void resetPassword(Chef chef, String newPassword, String token, String activationLink) {
+        chef.setPassword(passwordEncoder.encode(newPassword));
+        chef.setActive(false); // Require reactivation
+        chef.setActivationToken(token);
+        chefRepository.save(chef);
+        emailService.sendActivationEmail(chef.getEmail(), activationLink);
+    }
+
     public boolean activateChefByToken(String token) {
         Optional<Chef> chefOpt = chefRepository.findByActivationToken(token);
         if (chefOpt.isEmpty()) {
@@ -82,19 +90,6 @@ public class ChefService {
         return toChefProfileDTO(chef);
     }
 
-    private String uploadFileToCloudinary(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            return null;
-        }
-        try {
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-            return (String) uploadResult.get("secure_url");
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file to Cloudinary", e);
-        }
-    }
-
-
     public Chef updateChefProfile(String email, ChefProfileDTO dto, MultipartFile profilePictureFile) {
         Chef chef = chefRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Chef not found"));
@@ -113,7 +108,7 @@ public class ChefService {
                 cloudinaryService.deleteImageFromCloud(publicId); // Assuming deleteImageFromCloud helper exists
             }
             // Upload the new picture and set the URL
-            String newProfilePictureUrl = uploadFileToCloudinary(profilePictureFile);
+            String newProfilePictureUrl = mediaUploadService.upload(profilePictureFile);
             chef.setProfilePicture(newProfilePictureUrl);
         }
         // Case 2: The user removed the picture without uploading a new one.
@@ -127,10 +122,25 @@ public class ChefService {
 
         return chefRepository.save(chef);
     }
-    public List<ChefRecipeSearchSuggestionDTO> searchChefRecipes(Long chefId, String keyword) {
-        return chefRepository.searchRecipesByChefAndKeyword(chefId, keyword)
+    // Sets a picture that is already stored (direct upload), releasing the previous one
+    public Chef setProfilePicture(Long chefId, String url) {
+        Chef chef = chefRepository.findById(chefId)
+                .orElseThrow(() -> new RuntimeException("Chef not found"));
+        String old = chef.getProfilePicture();
+        chef.setProfilePicture(url);
+        Chef saved = chefRepository.save(chef);
+        if (old != null && !old.isEmpty()) {
+            cloudinaryService.deleteImageFromCloud(cloudinaryService.extractPublicId(old));
+        }
+        return saved;
+    }
+
+    // Title and description search over this chef's recipes, served from the in-memory index
+    public List<ChefRecipeSearchSuggestionDTO> searchChefRecipes(Long chefId, String keyword, Integer limit) {
+        int max = limit != null ? Math.min(limit, maxSearchResults) : maxSearchResults;
+        return recipeSearchIndex.search(keyword, chefId, true, max)
                 .stream()
-                .map(r -> new ChefRecipeSearchSuggestionDTO(r.getRecipeId(), r.getTitle(), r.getDescription()))
+                .map(hit -> new ChefRecipeSearchSuggestionDTO(hit.recipeId(), hit.title(), hit.description()))
                 .toList();
     }
 
@@ -2,24 +2,32 @@ package com.NewCooks.NewCooks.Service;
 
 import com.NewCooks.NewCooks.Entity.Recipe;
 import com.NewCooks.NewCooks.Repository.RecipeRepository;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.NewCooks.NewCooks.Storage.MediaStorage;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
 public class CloudinaryService
 {
-    private final Cloudinary cloudinary;
     private final RecipeRepository recipeRepository;
+    private final MediaDeletionQueue mediaDeletionQueue;
+    private final MediaAssetService mediaAssetService;
+    private final MediaStorage mediaStorage;
 
+    // Drops one reference; an asset nothing references any more is queued for MediaDeletionWorker
+    @Transactional
     public void deleteImageFromCloud(String publicId) {
-        try {
-            cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        deleteImagesFromCloud(List.of(publicId));
+    }
+
+    @Transactional
+    public void deleteImagesFromCloud(Collection<String> publicIds) {
+        mediaDeletionQueue.enqueueAll(mediaAssetService.releaseAll(publicIds));
     }
 
     public Recipe removeImage(Long recipeId, String urlToRemove) {
@@ -42,9 +50,6 @@ public class CloudinaryService
     }
 
     public String extractPublicId(String url) {
-        // Cloudinary URL example: https://res.cloudinary.com/<cloud>/image/upload/v123456/<public_id>.jpg
-        String[] parts = url.split("/");
-        String filename = parts[parts.length - 1]; // "<public_id>.jpg"
-        return filename.substring(0, filename.lastIndexOf('.')); // "<public_id>"
+        return mediaStorage.publicIdOf(url);
     }
 }
@@ -0,0 +1,76 @@
+package com.NewCooks.NewCooks.Service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Adds list_index to recipe element-collection tables created before the lists had an order column.
+ * Hibernate's schema update would add it NOT NULL (it is part of the collection's primary key), which
+ * Postgres refuses on a table with rows, so this runs before the EntityManagerFactory is built (see
+ * SchemaMigrationConfig): add the column nullable, number the rows, then set NOT NULL and the key.
+ * Legacy rows carry no stored position; they are numbered in heap order, which is the order the
+ * unordered collection load returned them in until now. Each table is migrated once, in one
+ * transaction holding an exclusive lock, so the numbering can't interleave with writes.
+ */
+@Component("collectionOrderMigration")
+public class CollectionOrderMigration {
+
+    private static final List<String> TABLES =
+            List.of("recipe_ingredients", "recipe_utensils", "recipe_instructions", "recipe_images");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Plain JDBC: the JPA transaction manager needs the EntityManagerFactory this has to run before
+    public CollectionOrderMigration(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @PostConstruct
+    void migrate() {
+        for (String table : TABLES) {
+            transactionTemplate.executeWithoutResult(status -> migrate(table));
+        }
+    }
+
+    private void migrate(String table) {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table))) {
+            return; // fresh database: Hibernate creates the table with the column
+        }
+        if ("NO".equals(listIndexNullable(table))) {
+            return; // already migrated
+        }
+        jdbcTemplate.execute("LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+        if ("NO".equals(listIndexNullable(table))) {
+            return; // another instance migrated it while this one waited for the lock
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS list_index integer");
+        jdbcTemplate.update("UPDATE " + table + " t SET list_index = n.pos " +
+                "FROM (SELECT ctid AS row_ctid, " +
+                "ROW_NUMBER() OVER (PARTITION BY recipe_id ORDER BY list_index NULLS LAST, ctid) - 1 AS pos " +
+                "FROM " + table + ") n " +
+                "WHERE t.ctid = n.row_ctid");
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN list_index SET NOT NULL");
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_index WHERE indrelid = to_regclass(?) AND indisprimary)", Boolean.class, table))) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD PRIMARY KEY (recipe_id, list_index)");
+        }
+    }
+
+    // "YES"/"NO" from information_schema, or null while the column doesn't exist
+    private String listIndexNullable(String table) {
+        List<String> rows = jdbcTemplate.queryForList(
+                "SELECT is_nullable FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'list_index'",
+                String.class, table);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
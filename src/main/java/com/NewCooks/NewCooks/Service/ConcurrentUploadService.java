@@ -0,0 +1,128 @@
+package com.NewCooks.NewCooks.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uploads the files of one request in parallel on a shared, fixed-size pool, which also caps
+ * how many uploads the whole application runs at once. Either every file is uploaded or none
+ * is: on the first failure or timeout the rest are cancelled and whatever already reached
+ * storage is deleted again.
+ */
+@Service
+public class ConcurrentUploadService {
+
+    private final MediaUploadService mediaUploadService;
+    private final CloudinaryService cloudinaryService;
+    private final ExecutorService executor;
+    private final long timeoutSeconds;
+
+    public ConcurrentUploadService(MediaUploadService mediaUploadService,
+                                   CloudinaryService cloudinaryService,
+                                   @Value("${newcooks.uploads.max-concurrency:8}") int maxConcurrency,
+                                   @Value("${newcooks.uploads.timeout-seconds:60}") long timeoutSeconds) {
+        this.mediaUploadService = mediaUploadService;
+        this.cloudinaryService = cloudinaryService;
+        this.timeoutSeconds = timeoutSeconds;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrency, r -> {
+            Thread t = new Thread(r, "media-upload-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the URL of each file in the same order; null or empty files give a null entry.
+     * Throws if any upload fails or the whole batch, queueing on the shared pool included, isn't
+     * done within newcooks.uploads.timeout-seconds of the call.
+     */
+    public List<String> uploadAll(List<MultipartFile> files) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        Batch batch = new Batch();
+        List<Future<String>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            if (file == null || file.isEmpty()) {
+                futures.add(null);
+                continue;
+            }
+            futures.add(executor.submit(() -> {
+                String url = mediaUploadService.upload(file);
+                // The batch failed while this upload was in flight: don't leave it behind
+                if (!batch.record(url)) {
+                    deleteQuietly(url);
+                    throw new CancellationException("Upload batch aborted");
+                }
+                return url;
+            }));
+        }
+
+        List<String> urls = new ArrayList<>(files.size());
+        try {
+            for (Future<String> future : futures) {
+                urls.add(future == null ? null : future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+            }
+            return urls;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(batch, futures);
+            throw new RuntimeException("Interrupted while uploading files", e);
+        } catch (TimeoutException e) {
+            abort(batch, futures);
+            throw new RuntimeException("Timed out uploading files", e);
+        } catch (ExecutionException e) {
+            abort(batch, futures);
+            throw new RuntimeException("Failed to upload file to Cloudinary", e.getCause());
+        }
+    }
+
+    // Every finished upload either gets recorded before the batch aborts, and is then released by
+    // abort, or sees the abort and deletes itself; the shared lock leaves no gap between the two
+    private static final class Batch {
+        private boolean aborted;
+        private final List<String> uploaded = new ArrayList<>();
+
+        synchronized boolean record(String url) {
+            if (aborted) {
+                return false;
+            }
+            uploaded.add(url);
+            return true;
+        }
+
+        synchronized List<String> abort() {
+            aborted = true;
+            return new ArrayList<>(uploaded);
+        }
+    }
+
+    private void abort(Batch batch, List<Future<String>> futures) {
+        List<String> uploaded = batch.abort();
+        for (Future<String> future : futures) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+        for (String url : uploaded) {
+            deleteQuietly(url);
+        }
+    }
+
+    private void deleteQuietly(String url) {
+        if (url != null) {
+            cloudinaryService.deleteImageFromCloud(cloudinaryService.extractPublicId(url));
+        }
+    }
+}
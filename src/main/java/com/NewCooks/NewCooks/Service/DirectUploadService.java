@@ -0,0 +1,142 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.DTO.DirectUploadConfirmDTO;
+import com.NewCooks.NewCooks.DTO.DirectUploadDTO;
+import com.NewCooks.NewCooks.DTO.SignedUploadDTO;
+import com.NewCooks.NewCooks.Entity.Chef;
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Entity.User;
+import com.NewCooks.NewCooks.Security.AuthenticatedAccount;
+import com.cloudinary.Cloudinary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Lets browsers upload straight to Cloudinary so image bytes never pass through the backend.
+ * sign() hands out parameters for one upload to a public id reserved for the caller; the attach
+ * methods check Cloudinary's response signature for each upload and store the delivery URL, all
+ * in one transaction so a rejected upload leaves nothing half-attached.
+ */
+@Service
+@ConditionalOnProperty(name = "newcooks.media.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class DirectUploadService {
+
+    // Cloudinary accepts a signed upload for one hour after its timestamp
+    private static final long CLOUDINARY_SIGNATURE_WINDOW_SECONDS = 3600;
+    private static final Pattern FORMAT = Pattern.compile("[a-z0-9]{1,10}");
+
+    private final Cloudinary cloudinary;
+    private final MediaAssetService mediaAssetService;
+    private final RecipeService recipeService;
+    private final ChefService chefService;
+    private final UserService userService;
+    private final long ttlSeconds;
+
+    public DirectUploadService(Cloudinary cloudinary,
+                               MediaAssetService mediaAssetService,
+                               RecipeService recipeService,
+                               ChefService chefService,
+                               UserService userService,
+                               @Value("${newcooks.uploads.direct.ttl-seconds:600}") long ttlSeconds) {
+        this.cloudinary = cloudinary;
+        this.mediaAssetService = mediaAssetService;
+        this.recipeService = recipeService;
+        this.chefService = chefService;
+        this.userService = userService;
+        this.ttlSeconds = Math.min(Math.max(ttlSeconds, 1), CLOUDINARY_SIGNATURE_WINDOW_SECONDS);
+    }
+
+    public SignedUploadDTO sign(AuthenticatedAccount account) {
+        long now = Instant.now().getEpochSecond();
+        // Backdating the timestamp shortens Cloudinary's fixed one-hour window to our TTL
+        long timestamp = now - (CLOUDINARY_SIGNATURE_WINDOW_SECONDS - ttlSeconds);
+        // Flat ids (no folders): CloudinaryService.extractPublicId only reads the last path segment
+        String publicId = ownerPrefix(account) + UUID.randomUUID();
+
+        Map<String, Object> params = new TreeMap<>();
+        params.put("public_id", publicId);
+        params.put("timestamp", timestamp);
+        String signature = cloudinary.apiSignRequest(params, cloudinary.config.apiSecret);
+
+        return new SignedUploadDTO(
+                "https://api.cloudinary.com/v1_1/" + cloudinary.config.cloudName + "/image/upload",
+                cloudinary.config.apiKey,
+                timestamp,
+                publicId,
+                signature,
+                now + ttlSeconds
+        );
+    }
+
+    @Transactional
+    public Recipe attachToRecipe(AuthenticatedAccount account, Long recipeId, DirectUploadConfirmDTO confirm) {
+        Long chefId = account.chefId();
+        List<DirectUploadDTO> images = confirm.getImages() != null ? confirm.getImages() : List.of();
+        String thumbnailUrl = confirm.getThumbnail() != null ? verify(account, confirm.getThumbnail()) : null;
+        List<String> imageUrls = new ArrayList<>(images.size());
+        for (DirectUploadDTO image : images) {
+            imageUrls.add(verify(account, image));
+        }
+        if (thumbnailUrl != null) {
+            retain(confirm.getThumbnail(), thumbnailUrl);
+        }
+        for (int i = 0; i < images.size(); i++) {
+            retain(images.get(i), imageUrls.get(i));
+        }
+        return recipeService.attachImages(chefId, recipeId, thumbnailUrl, imageUrls);
+    }
+
+    @Transactional
+    public Chef attachChefProfilePicture(AuthenticatedAccount account, DirectUploadDTO upload) {
+        Long chefId = account.chefId();
+        String url = verify(account, upload);
+        retain(upload, url);
+        return chefService.setProfilePicture(chefId, url);
+    }
+
+    @Transactional
+    public User attachUserProfilePicture(AuthenticatedAccount account, DirectUploadDTO upload) {
+        Long userId = account.userId();
+        String url = verify(account, upload);
+        retain(upload, url);
+        return userService.setProfilePicture(userId, url);
+    }
+
+    // Returns the secure URL of an upload; throws if it wasn't signed for this caller
+    private String verify(AuthenticatedAccount account, DirectUploadDTO upload) {
+        if (upload == null || upload.getPublicId() == null || upload.getVersion() == null
+                || upload.getSignature() == null || upload.getFormat() == null) {
+            throw new RuntimeException("Incomplete upload confirmation");
+        }
+        if (!upload.getPublicId().startsWith(ownerPrefix(account))) {
+            throw new RuntimeException("Upload does not belong to this account");
+        }
+        if (!FORMAT.matcher(upload.getFormat()).matches()) {
+            throw new RuntimeException("Invalid upload format");
+        }
+        if (!cloudinary.verifyApiResponseSignature(upload.getPublicId(), upload.getVersion(), upload.getSignature())) {
+            throw new RuntimeException("Invalid upload signature");
+        }
+        return cloudinary.url()
+                .secure(true)
+                .version(upload.getVersion())
+                .format(upload.getFormat())
+                .generate(upload.getPublicId());
+    }
+
+    // Each attachment holds a reference, so one upload confirmed twice is only deleted when both go
+    private void retain(DirectUploadDTO upload, String url) {
+        mediaAssetService.retainDirectUpload(upload.getPublicId(), url);
+    }
+
+    private String ownerPrefix(AuthenticatedAccount account) {
+        String kind = AuthenticatedAccount.ROLE_CHEF.equals(account.role()) ? "chef" : "user";
+        return kind + "-" + account.id() + "-";
+    }
+}
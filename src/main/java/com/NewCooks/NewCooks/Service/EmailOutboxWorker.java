@@ -0,0 +1,84 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.OutboundEmail;
+import com.NewCooks.NewCooks.Repository.OutboundEmailRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Sends queued mail in the background. Due rows are claimed through {@link Outbox} and handed to
+ * JavaMailSender as one batch, which delivers them over a single SMTP connection. Sent rows are
+ * removed; failed ones go back to the outbox for retry.
+ */
+@Service
+public class EmailOutboxWorker {
+
+    private final JavaMailSender mailSender;
+    private final String fromEmail;
+    private final Outbox<OutboundEmail> outbox;
+
+    public EmailOutboxWorker(OutboundEmailRepository outboundEmailRepository,
+                             JavaMailSender mailSender,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${spring.mail.properties.mail.smtp.from}") String fromEmail,
+                             @Value("${newcooks.mail.outbox.batch-size:50}") int batchSize,
+                             @Value("${newcooks.mail.outbox.max-attempts:10}") int maxAttempts,
+                             @Value("${newcooks.mail.outbox.lease-seconds:120}") long leaseSeconds,
+                             @Value("${newcooks.mail.outbox.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                             @Value("${newcooks.mail.outbox.max-backoff-seconds:3600}") long maxBackoffSeconds) {
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+        this.outbox = new Outbox<>(outboundEmailRepository, transactionTemplate, batchSize, maxAttempts,
+                Duration.ofSeconds(leaseSeconds),
+                Duration.ofSeconds(initialBackoffSeconds),
+                Duration.ofSeconds(maxBackoffSeconds));
+    }
+
+    @Scheduled(fixedDelayString = "${newcooks.mail.outbox.poll-millis:2000}")
+    public void drain() {
+        outbox.drain(this::send);
+    }
+
+    private void send(List<OutboundEmail> batch) {
+        Map<SimpleMailMessage, OutboundEmail> byMessage = new IdentityHashMap<>();
+        for (OutboundEmail row : batch) {
+            SimpleMailMessage msg = new SimpleMailMessage();
+            msg.setFrom(fromEmail);
+            msg.setTo(row.getToAddress());
+            msg.setSubject(row.getSubject());
+            msg.setText(row.getBody());
+            byMessage.put(msg, row);
+        }
+
+        Map<OutboundEmail, String> failed = new HashMap<>();
+        try {
+            mailSender.send(byMessage.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Per-message failures; a connection failure reports every message as failed
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(row -> failed.put(row, e.getMessage()));
+            }
+            e.getFailedMessages().forEach((message, cause) -> {
+                OutboundEmail row = byMessage.get(message);
+                if (row != null) {
+                    failed.put(row, cause.getMessage());
+                }
+            });
+        } catch (MailException e) {
+            batch.forEach(row -> failed.put(row, e.getMessage()));
+        }
+
+        outbox.completed(batch.stream().filter(row -> !failed.containsKey(row)).toList());
+        outbox.failed(failed, row -> System.err.println(
+                "Giving up on email " + row.getId() + " to " + row.getToAddress() + ": " + failed.get(row)));
+    }
+}
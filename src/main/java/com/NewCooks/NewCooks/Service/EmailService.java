@@ -1,28 +1,42 @@
 package com.NewCooks.NewCooks.Service;
 
+import com.NewCooks.NewCooks.Entity.OutboundEmail;
+import com.NewCooks.NewCooks.Repository.OutboundEmailRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+
+/**
+ * Queues outgoing mail in tbl_outbound_email; EmailOutboxWorker does the SMTP part. The row is
+ * written in the caller's transaction, so an email exists exactly when the change it announces
+ * (a new account, a password reset) commits, and SMTP trouble never fails the request.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.properties.mail.smtp.from}")
-    private String fromEmail;
+    private final OutboundEmailRepository outboundEmailRepository;
 
+    @Transactional
     public void sendActivationEmail(String toEmail, String activationLink)
     {
-        SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setFrom(fromEmail);
-        msg.setTo(toEmail);
-        msg.setSubject("Activate your NewCooks account");
-        msg.setText("Welcome to NewCooks!\n\nClick the link to activate:\n" + activationLink +
-                "\n\nIf you didn't sign up, ignore this email.");
-        mailSender.send(msg);
+        enqueue(toEmail,
+                "Activate your NewCooks account",
+                "Welcome to NewCooks!\n\nClick the link to activate:\n" + activationLink +
+                        "\n\nIf you didn't sign up, ignore this email.");
+    }
+
+    private void enqueue(String to, String subject, String body) {
+        Instant now = Instant.now();
+        outboundEmailRepository.save(OutboundEmail.builder()
+                .toAddress(to)
+                .subject(subject)
+                .body(body)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
     }
 }
@@ -0,0 +1,44 @@
+package com.NewCooks.NewCooks.Service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the recipe feed: the sort it was issued for, the sort key of the
+ * last row on the page and that row's recipeId as tie-breaker. Review listings reuse it with
+ * NEWEST and the last review's id.
+ */
+public record FeedCursor(Sort sort, String sortValue, Long lastId) {
+
+    public enum Sort {
+        NEWEST, // recipeId DESC
+        TITLE;  // title ASC, recipeId ASC
+
+        public static Sort from(String value) {
+            try {
+                return Sort.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort: " + value);
+            }
+        }
+    }
+
+    public String encode() {
+        String raw = sort.name() + "|" + lastId + "|" + (sortValue != null ? sortValue : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // sortValue goes last so a title containing '|' still round-trips
+            String[] parts = raw.split("\\|", 3);
+            return new FeedCursor(Sort.valueOf(parts[0]), parts[2], Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
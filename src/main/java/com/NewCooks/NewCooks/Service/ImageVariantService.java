@@ -0,0 +1,153 @@
+package com.NewCooks.NewCooks.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Resizes an uploaded photo into fixed-width JPEG variants (newcooks.media.variant-widths) and a
+ * tiny blurred placeholder that clients can inline while the real image loads. Only widths
+ * smaller than the original are produced. The source is decoded subsampled down to roughly the
+ * largest variant, so a 12 MP photo never has to sit fully decoded on the heap.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final int PLACEHOLDER_WIDTH = 16;
+
+    private final List<Integer> widths;
+    private final float quality;
+
+    public ImageVariantService(@Value("${newcooks.media.variant-widths:320,640,1280}") List<Integer> widths,
+                               @Value("${newcooks.media.variant-quality:0.8}") float quality) {
+        this.widths = widths.stream().filter(w -> w > 0).sorted().distinct().toList();
+        this.quality = quality;
+    }
+
+    // Variant files are temp files owned by the caller
+    public record Variants(SortedMap<Integer, Path> files, String placeholder) {
+    }
+
+    // Empty when the file isn't an image ImageIO can decode
+    public Optional<Variants> process(Path original) throws IOException {
+        Decoded decoded = decode(original);
+        if (decoded == null) {
+            return Optional.empty();
+        }
+        BufferedImage source = decoded.image();
+        SortedMap<Integer, Path> files = new TreeMap<>();
+        try {
+            for (int width : widths) {
+                if (width >= decoded.originalWidth()) {
+                    break;
+                }
+                Path file = Files.createTempFile("newcooks-variant-", ".jpg");
+                files.put(width, file);
+                try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+                    writeJpeg(resize(source, width), quality, out);
+                }
+            }
+            ByteArrayOutputStream placeholder = new ByteArrayOutputStream();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(placeholder)) {
+                writeJpeg(resize(source, PLACEHOLDER_WIDTH), 0.4f, out);
+            }
+            return Optional.of(new Variants(files,
+                    "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(placeholder.toByteArray())));
+        } catch (IOException | RuntimeException e) {
+            files.values().forEach(this::deleteQuietly);
+            throw e;
+        }
+    }
+
+    public void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Failed to delete temp variant " + path + ": " + e.getMessage());
+        }
+    }
+
+    private record Decoded(BufferedImage image, int originalWidth) {
+    }
+
+    private Decoded decode(Path original) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int largest = widths.isEmpty() ? PLACEHOLDER_WIDTH : widths.get(widths.size() - 1);
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least 2x the largest variant so the final downscale stays smooth
+                int subsampling = Math.max(1, sourceWidth / (largest * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return new Decoded(reader.read(0, param), sourceWidth);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves repeatedly before the last bilinear step, which keeps downscales from aliasing
+    private BufferedImage resize(BufferedImage source, int width) {
+        BufferedImage current = source;
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+        return draw(current, width, targetHeight);
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        // Always RGB: JPEG has no alpha, so transparent areas are flattened onto white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, float jpegQuality, ImageOutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
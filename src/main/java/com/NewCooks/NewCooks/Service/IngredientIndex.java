@@ -0,0 +1,220 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Repository.RecipeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Word -> recipe-id bitmaps over recipe_ingredients and recipe_utensils, for "what can I cook"
+ * queries. Ingredient lines are reduced to words ("2 cups chopped tomatoes" -> "tomato"), and a
+ * requested item matches a recipe when all of its words appear in that recipe's lines.
+ */
+@Component
+@RequiredArgsConstructor
+public class IngredientIndex {
+
+    // Quantities, units and preparation words that say nothing about what the ingredient is
+    private static final Set<String> IGNORED_WORDS = Set.of(
+            "a", "an", "and", "or", "of", "the", "to", "for", "with", "taste", "as", "needed", "optional",
+            "cup", "tbsp", "tsp", "tablespoon", "teaspoon", "g", "gm", "gram", "kg", "ml", "l", "litre", "liter",
+            "oz", "ounce", "lb", "pound", "pinch", "dash", "piece", "slice", "clove",
+            "chopped", "sliced", "diced", "minced", "grated", "fresh", "large", "small", "medium");
+
+    private final RecipeRepository recipeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RoaringBitmap> ingredientWords = new HashMap<>();
+    private final Map<String, RoaringBitmap> utensilWords = new HashMap<>();
+    private final Map<Integer, Set<String>> ingredientsByRecipe = new HashMap<>();
+    private final Map<Integer, Set<String>> utensilsByRecipe = new HashMap<>();
+
+    public record Match(Long recipeId, int matched) {
+    }
+
+    // requested counts only the items that had usable words; the rest can never match and are ignored
+    public record SearchResult(List<Match> matches, int requested) {
+    }
+
+    @PostConstruct
+    void seed() {
+        List<Object[]> ingredientRows = recipeRepository.findAllIngredients();
+        List<Object[]> utensilRows = recipeRepository.findAllUtensils();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : ingredientRows) {
+                add(ingredientWords, ingredientsByRecipe, toIndexId((Long) row[0]), (String) row[1]);
+            }
+            for (Object[] row : utensilRows) {
+                add(utensilWords, utensilsByRecipe, toIndexId((Long) row[0]), (String) row[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Recipe recipe) {
+        int id = toIndexId(recipe.getRecipeId());
+        lock.writeLock().lock();
+        try {
+            remove(id);
+            if (recipe.getIngredients() != null) {
+                recipe.getIngredients().forEach(line -> add(ingredientWords, ingredientsByRecipe, id, line));
+            }
+            if (recipe.getUtensils() != null) {
+                recipe.getUtensils().forEach(line -> add(utensilWords, utensilsByRecipe, id, line));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void unindex(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            remove(toIndexId(recipeId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recipes having at least minMatch of the requested items (all of them when minMatch is null),
+     * most matches first, then newest first.
+     */
+    public SearchResult search(List<String> ingredients, List<String> utensils, Integer minMatch, int limit) {
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> itemBitmaps = new ArrayList<>();
+            for (String item : ingredients) {
+                addItemBitmap(itemBitmaps, ingredientWords, item);
+            }
+            for (String item : utensils) {
+                addItemBitmap(itemBitmaps, utensilWords, item);
+            }
+            int items = itemBitmaps.size();
+            if (items == 0 || limit <= 0) {
+                return new SearchResult(List.of(), items);
+            }
+
+            int required = minMatch == null ? items : Math.max(1, Math.min(minMatch, items));
+            List<Match> result = new ArrayList<>();
+            if (required == items) {
+                collect(FastAggregation.and(itemBitmaps.iterator()), items, limit, result);
+                return new SearchResult(result, items);
+            }
+
+            // atLeast[k] = recipes having at least k of the items, built with running AND/OR
+            // accumulators: after item i, a recipe is in atLeast[k] if it was already there or was in
+            // atLeast[k - 1] and has item i. O(items^2) bitmap operations, no per-recipe work.
+            RoaringBitmap[] atLeast = new RoaringBitmap[items + 2];
+            for (int k = 1; k <= items + 1; k++) {
+                atLeast[k] = new RoaringBitmap();
+            }
+            for (int i = 0; i < items; i++) {
+                RoaringBitmap item = itemBitmaps.get(i);
+                for (int k = i + 1; k >= 2; k--) {
+                    atLeast[k].or(RoaringBitmap.and(atLeast[k - 1], item));
+                }
+                atLeast[1].or(item);
+            }
+
+            // Exactly k matches, from the best level down; stop as soon as the page is full
+            for (int k = items; k >= required && result.size() < limit; k--) {
+                collect(RoaringBitmap.andNot(atLeast[k], atLeast[k + 1]), k, limit, result);
+            }
+            return new SearchResult(result, items);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Highest ids first = newest recipes first
+    private static void collect(RoaringBitmap recipes, int matched, int limit, List<Match> target) {
+        IntIterator it = recipes.getReverseIntIterator();
+        while (target.size() < limit && it.hasNext()) {
+            target.add(new Match((long) it.next(), matched));
+        }
+    }
+
+    // One bitmap per requested item: recipes containing every word of it. Items with no usable words are skipped.
+    private void addItemBitmap(List<RoaringBitmap> target, Map<String, RoaringBitmap> index, String item) {
+        Set<String> words = words(item);
+        if (words.isEmpty()) {
+            return;
+        }
+        List<RoaringBitmap> wordBitmaps = new ArrayList<>(words.size());
+        for (String word : words) {
+            wordBitmaps.add(index.getOrDefault(word, new RoaringBitmap()));
+        }
+        target.add(wordBitmaps.size() == 1 ? wordBitmaps.get(0) : FastAggregation.and(wordBitmaps.iterator()));
+    }
+
+    // Callers hold the write lock
+    private void add(Map<String, RoaringBitmap> index, Map<Integer, Set<String>> byRecipe, int recipeId, String line) {
+        for (String word : words(line)) {
+            index.computeIfAbsent(word, k -> new RoaringBitmap()).add(recipeId);
+            byRecipe.computeIfAbsent(recipeId, k -> new HashSet<>()).add(word);
+        }
+    }
+
+    private void remove(int recipeId) {
+        removeFrom(ingredientWords, ingredientsByRecipe.remove(recipeId), recipeId);
+        removeFrom(utensilWords, utensilsByRecipe.remove(recipeId), recipeId);
+    }
+
+    private void removeFrom(Map<String, RoaringBitmap> index, Set<String> words, int recipeId) {
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            RoaringBitmap bitmap = index.get(word);
+            bitmap.remove(recipeId);
+            if (bitmap.isEmpty()) {
+                index.remove(word);
+            } else {
+                bitmap.runOptimize();
+            }
+        }
+    }
+
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}]+")) {
+            String word = singular(token);
+            if (word.length() > 1 && !IGNORED_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // Crude plural folding so "tomatoes"/"tomato" and "chillies"/"chilly" meet
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 4 && word.endsWith("oes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static int toIndexId(Long recipeId) {
+        return Math.toIntExact(recipeId);
+    }
+}
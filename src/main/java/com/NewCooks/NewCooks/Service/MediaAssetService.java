@@ -0,0 +1,99 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.DTO.ImageVariantsDTO;
+import com.NewCooks.NewCooks.Entity.MediaAsset;
+import com.NewCooks.NewCooks.Repository.MediaAssetRepository;
+import com.NewCooks.NewCooks.Storage.MediaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Content hash → stored asset index with reference counts. Every URL a recipe or profile holds
+ * accounts for one reference; the asset is only deleted from storage when the last one goes.
+ * Assets uploaded before this index existed have no row and count as a single reference.
+ */
+@Service
+@RequiredArgsConstructor
+public class MediaAssetService {
+
+    private final MediaAssetRepository mediaAssetRepository;
+    private final MediaStorage mediaStorage;
+
+    // Takes a reference on an asset with this content and returns its URL, if one is stored
+    @Transactional
+    public Optional<String> acquire(String contentHash) {
+        if (mediaAssetRepository.incrementRefCount(contentHash) == 0) {
+            return Optional.empty();
+        }
+        return mediaAssetRepository.findByContentHash(contentHash).map(MediaAsset::getUrl);
+    }
+
+    // Records a freshly uploaded asset with one reference; fails if the hash was registered concurrently
+    @Transactional
+    public void register(String contentHash, String url, String publicId, String variantSrcset, String placeholder) {
+        mediaAssetRepository.saveAndFlush(MediaAsset.builder()
+                .contentHash(contentHash)
+                .url(url)
+                .publicId(publicId)
+                .refCount(1)
+                .variantSrcset(variantSrcset)
+                .placeholder(placeholder)
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    // Takes a reference on a confirmed direct upload, registering it on first use
+    @Transactional
+    public void retainDirectUpload(String publicId, String url) {
+        String key = "direct:" + publicId;
+        if (mediaAssetRepository.incrementRefCount(key) == 0) {
+            register(key, url, publicId, null, null);
+        }
+    }
+
+    // Variant sets keyed by original URL, in one query; URLs without variants are left out
+    @Transactional(readOnly = true)
+    public Map<String, ImageVariantsDTO> variantsFor(Collection<String> urls) {
+        List<String> distinct = urls.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, ImageVariantsDTO> variants = new HashMap<>();
+        for (MediaAsset asset : mediaAssetRepository.findByUrlIn(distinct)) {
+            ImageVariantsDTO dto = ImageVariantsDTO.fromSrcset(asset.getVariantSrcset(), asset.getPlaceholder());
+            if (dto != null) {
+                variants.put(asset.getUrl(), dto);
+            }
+        }
+        return variants;
+    }
+
+    // Drops one reference per id and returns the ids no longer referenced by anything, variants included
+    @Transactional
+    public List<String> releaseAll(Collection<String> publicIds) {
+        List<String> unreferenced = new ArrayList<>();
+        for (String publicId : publicIds) {
+            Optional<MediaAsset> asset = mediaAssetRepository.findByPublicId(publicId);
+            if (asset.isEmpty()) {
+                unreferenced.add(publicId);
+                continue;
+            }
+            MediaAsset a = asset.get();
+            if (a.getRefCount() <= 1) {
+                mediaAssetRepository.delete(a);
+                unreferenced.add(publicId);
+                ImageVariantsDTO variants = ImageVariantsDTO.fromSrcset(a.getVariantSrcset(), null);
+                if (variants != null) {
+                    variants.getWidths().values().forEach(url -> unreferenced.add(mediaStorage.publicIdOf(url)));
+                }
+            } else {
+                a.setRefCount(a.getRefCount() - 1);
+            }
+        }
+        return unreferenced;
+    }
+}
@@ -0,0 +1,48 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.MediaDeletion;
+import com.NewCooks.NewCooks.Repository.MediaDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Records Cloudinary assets to delete instead of deleting them inline. The rows are written in
+ * the caller's transaction, so an image is only removed if the change that dropped it commits;
+ * MediaDeletionWorker does the remote calls later, in batches.
+ */
+@Service
+@RequiredArgsConstructor
+public class MediaDeletionQueue {
+
+    private final MediaDeletionRepository mediaDeletionRepository;
+
+    @Transactional
+    public void enqueue(String publicId) {
+        enqueueAll(List.of(publicId));
+    }
+
+    @Transactional
+    public void enqueueAll(Collection<String> publicIds) {
+        Instant now = Instant.now();
+        List<MediaDeletion> rows = publicIds.stream()
+                .filter(Objects::nonNull)
+                .filter(id -> !id.isBlank())
+                .distinct()
+                .<MediaDeletion>map(id -> MediaDeletion.builder()
+                        .publicId(id)
+                        .attempts(0)
+                        .nextAttemptAt(now)
+                        .createdAt(now)
+                        .build())
+                .toList();
+        if (!rows.isEmpty()) {
+            mediaDeletionRepository.saveAll(rows);
+        }
+    }
+}
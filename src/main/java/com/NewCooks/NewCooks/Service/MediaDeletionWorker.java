@@ -0,0 +1,81 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.MediaDeletion;
+import com.NewCooks.NewCooks.Repository.MediaDeletionRepository;
+import com.NewCooks.NewCooks.Storage.MediaStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Drains tbl_media_deletion in the background. Due rows are claimed through {@link Outbox}, their
+ * public ids are deleted with one bulk MediaStorage call per batch, and rows the storage reports
+ * as deleted (or already gone) are removed; the rest go back to the outbox for retry.
+ */
+@Service
+public class MediaDeletionWorker {
+
+    // Cloudinary accepts at most 100 public ids per bulk delete
+    private static final int MAX_BATCH_SIZE = 100;
+
+    private final MediaStorage mediaStorage;
+    private final Outbox<MediaDeletion> outbox;
+
+    public MediaDeletionWorker(MediaDeletionRepository mediaDeletionRepository,
+                               MediaStorage mediaStorage,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${newcooks.media.deletion.batch-size:100}") int batchSize,
+                               @Value("${newcooks.media.deletion.max-attempts:10}") int maxAttempts,
+                               @Value("${newcooks.media.deletion.lease-seconds:120}") long leaseSeconds,
+                               @Value("${newcooks.media.deletion.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                               @Value("${newcooks.media.deletion.max-backoff-seconds:3600}") long maxBackoffSeconds) {
+        this.mediaStorage = mediaStorage;
+        this.outbox = new Outbox<>(mediaDeletionRepository, transactionTemplate,
+                Math.min(batchSize, MAX_BATCH_SIZE), maxAttempts,
+                Duration.ofSeconds(leaseSeconds),
+                Duration.ofSeconds(initialBackoffSeconds),
+                Duration.ofSeconds(maxBackoffSeconds));
+    }
+
+    @Scheduled(fixedDelayString = "${newcooks.media.deletion.poll-millis:5000}")
+    public void drain() {
+        outbox.drain(this::process);
+    }
+
+    private void process(List<MediaDeletion> batch) {
+        Set<String> publicIds = new LinkedHashSet<>();
+        batch.forEach(row -> publicIds.add(row.getPublicId()));
+
+        Set<String> gone;
+        try {
+            gone = mediaStorage.delete(publicIds);
+        } catch (Exception e) {
+            System.err.println("Bulk media delete failed, will retry: " + e.getMessage());
+            reschedule(batch, e.getMessage());
+            return;
+        }
+
+        List<MediaDeletion> done = new ArrayList<>();
+        List<MediaDeletion> failed = new ArrayList<>();
+        for (MediaDeletion row : batch) {
+            if (gone.contains(row.getPublicId())) {
+                done.add(row);
+            } else {
+                failed.add(row);
+            }
+        }
+        outbox.completed(done);
+        reschedule(failed, "Unexpected delete status");
+    }
+
+    private void reschedule(List<MediaDeletion> rows, String error) {
+        Map<MediaDeletion, String> failed = new LinkedHashMap<>();
+        rows.forEach(row -> failed.put(row, error));
+        outbox.failed(failed, row ->
+                System.err.println("Giving up on deleting media " + row.getPublicId() + ": " + error));
+    }
+}
@@ -0,0 +1,157 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Storage.MediaStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * The one place files are sent to MediaStorage. The multipart upload is moved (not copied) to a
+ * temp file and handed over as a Path, which the storage streams in small chunks, so heap use
+ * per upload stays constant however large the photo is. Files whose SHA-256 matches an asset
+ * already stored are not uploaded again; they take another reference on it (MediaAssetService).
+ * New images also get their resized variants and placeholder uploaded (ImageVariantService).
+ */
+@Service
+@RequiredArgsConstructor
+public class MediaUploadService {
+
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final MediaStorage mediaStorage;
+    private final MediaAssetService mediaAssetService;
+    private final MediaDeletionQueue mediaDeletionQueue;
+    private final ImageVariantService imageVariantService;
+
+    // Returns the public URL, or null when no file was sent
+    public String upload(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            return null;
+        }
+        Path spooled = null;
+        try {
+            spooled = spool(file);
+            String contentHash = sha256(spooled);
+            Optional<String> existing = mediaAssetService.acquire(contentHash);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+
+            String url = mediaStorage.upload(spooled, file.getOriginalFilename());
+            String publicId = mediaStorage.publicIdOf(url);
+            List<String> variantUrls = new ArrayList<>();
+            String placeholder = uploadVariants(spooled, variantUrls);
+            try {
+                mediaAssetService.register(contentHash, url, publicId, toSrcset(variantUrls), placeholder);
+            } catch (DataIntegrityViolationException e) {
+                // The same bytes were uploaded concurrently: share that asset and drop ours
+                Optional<String> winner = mediaAssetService.acquire(contentHash);
+                if (winner.isPresent()) {
+                    List<String> ours = new ArrayList<>();
+                    ours.add(publicId);
+                    variantUrls.forEach(candidate -> ours.add(mediaStorage.publicIdOf(srcsetUrl(candidate))));
+                    mediaDeletionQueue.enqueueAll(ours);
+                    return winner.get();
+                }
+                // Otherwise ours stays untracked and is deleted on its first release
+            }
+            return url;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file", e);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    /**
+     * Uploads the resized copies of an image, adding "<url> <width>w" entries to srcsetCandidates,
+     * and returns the placeholder. A file that isn't a decodable image, or whose variants fail to
+     * upload, simply gets none; the original upload still succeeds.
+     */
+    private String uploadVariants(Path original, List<String> srcsetCandidates) {
+        Optional<ImageVariantService.Variants> variants;
+        try {
+            variants = imageVariantService.process(original);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not create image variants: " + e.getMessage());
+            return null;
+        }
+        if (variants.isEmpty()) {
+            return null;
+        }
+        try {
+            for (Map.Entry<Integer, Path> variant : variants.get().files().entrySet()) {
+                String url = mediaStorage.upload(variant.getValue(), "variant.jpg");
+                srcsetCandidates.add(url + " " + variant.getKey() + "w");
+            }
+        } catch (IOException e) {
+            System.err.println("Could not upload image variants: " + e.getMessage());
+            mediaDeletionQueue.enqueueAll(srcsetCandidates.stream()
+                    .map(candidate -> mediaStorage.publicIdOf(srcsetUrl(candidate)))
+                    .toList());
+            srcsetCandidates.clear();
+            return null;
+        } finally {
+            variants.get().files().values().forEach(imageVariantService::deleteQuietly);
+        }
+        return variants.get().placeholder();
+    }
+
+    private String toSrcset(List<String> candidates) {
+        return candidates.isEmpty() ? null : String.join(", ", candidates);
+    }
+
+    private String srcsetUrl(String candidate) {
+        return candidate.substring(0, candidate.lastIndexOf(' '));
+    }
+
+    // Multipart parts are already on disk (file-size-threshold=0); transferTo(File) renames them into place
+    Path spool(MultipartFile file) throws IOException {
+        Path spooled = Files.createTempFile("newcooks-upload-", ".tmp");
+        File target = spooled.toFile();
+        file.transferTo(target);
+        return spooled;
+    }
+
+    // Reads the spooled file through a fixed-size buffer, so hashing is as cheap on heap as the upload
+    String sha256(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Failed to delete temp upload " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.OutboxEntry;
+import com.NewCooks.NewCooks.Repository.OutboxRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Claim/retry bookkeeping shared by the background workers that drain an outbox table. Due rows
+ * are claimed under a short lease in batches; the worker delivers a batch and reports back which
+ * rows are done and which failed. Failed rows are retried with exponential backoff until
+ * maxAttempts, then parked with their last error for inspection instead of being retried every
+ * cycle.
+ */
+class Outbox<T extends OutboxEntry> {
+
+    // Where rows that ran out of attempts are parked; Instant.MAX doesn't fit a SQL timestamp
+    static final Instant PARKED = Instant.parse("9999-12-31T00:00:00Z");
+
+    private final OutboxRepository<T> repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    Outbox(OutboxRepository<T> repository,
+           TransactionTemplate transactionTemplate,
+           int batchSize,
+           int maxAttempts,
+           Duration lease,
+           Duration initialBackoff,
+           Duration maxBackoff) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    // Hands due rows to deliver one batch at a time until a batch comes back short
+    void drain(Consumer<List<T>> deliver) {
+        List<T> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                deliver.accept(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    // Pushes the claimed rows' next attempt past the lease so a crash mid-batch only delays them
+    private List<T> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<T> due = repository.lockDue(now, batchSize);
+            due.forEach(row -> row.setNextAttemptAt(now.plus(lease)));
+            return due;
+        });
+    }
+
+    void completed(Collection<T> rows) {
+        if (!rows.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> repository.deleteAllInBatch(rows));
+        }
+    }
+
+    // Reschedules each failed row with its error; rows out of attempts are parked and passed to onGiveUp
+    void failed(Map<T, String> failed, Consumer<T> onGiveUp) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        failed.forEach((row, error) -> {
+            row.setAttempts(row.getAttempts() + 1);
+            row.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 1000)));
+            if (row.getAttempts() >= maxAttempts) {
+                onGiveUp.accept(row);
+                row.setNextAttemptAt(PARKED);
+            } else {
+                row.setNextAttemptAt(now.plus(backoff(row.getAttempts())));
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> repository.saveAll(failed.keySet()));
+    }
+
+    private Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 20);
+        Duration delay = initialBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,83 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.DTO.Chef_User_DTO;
+import com.NewCooks.NewCooks.DTO.ImageVariantsDTO;
+import com.NewCooks.NewCooks.DTO.RecipeResponseDTO;
+import com.NewCooks.NewCooks.Entity.Chef;
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Builds RecipeResponseDTOs for a whole list of recipes with one query per element-collection
+ * table (recipe_id IN (...)) instead of lazily initialising four collections per recipe.
+ * The recipes passed in are expected to have their chef already fetched.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipeAggregateLoader {
+
+    private final RecipeRepository recipeRepository;
+    private final MediaAssetService mediaAssetService;
+
+    public List<RecipeResponseDTO> toResponseDTOs(List<Recipe> recipes) {
+        if (recipes.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = recipes.stream().map(Recipe::getRecipeId).toList();
+
+        Map<Long, List<String>> ingredients = groupByRecipe(recipeRepository.findIngredientsByRecipeIds(ids));
+        Map<Long, List<String>> utensils = groupByRecipe(recipeRepository.findUtensilsByRecipeIds(ids));
+        Map<Long, List<String>> instructions = groupByRecipe(recipeRepository.findInstructionsByRecipeIds(ids));
+        Map<Long, List<String>> images = groupByRecipe(recipeRepository.findImagesByRecipeIds(ids));
+
+        List<String> urls = new ArrayList<>();
+        recipes.forEach(recipe -> urls.add(recipe.getThumbnail()));
+        images.values().forEach(urls::addAll);
+        Map<String, ImageVariantsDTO> variants = mediaAssetService.variantsFor(urls);
+
+        List<RecipeResponseDTO> result = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            Long id = recipe.getRecipeId();
+            Chef chef = recipe.getChef();
+            result.add(new RecipeResponseDTO(
+                    id,
+                    recipe.getTitle(),
+                    recipe.getDescription(),
+                    ingredients.getOrDefault(id, new ArrayList<>()),
+                    utensils.getOrDefault(id, new ArrayList<>()),
+                    recipe.getNutritionInfo(),
+                    new Chef_User_DTO(chef.getId(), chef.getName(), chef.getEmail()),
+                    instructions.getOrDefault(id, new ArrayList<>()),
+                    recipe.getThumbnail(),
+                    images.getOrDefault(id, new ArrayList<>()),
+                    variants.get(recipe.getThumbnail()),
+                    variantsOf(images.getOrDefault(id, List.of()), variants)
+            ));
+        }
+        return result;
+    }
+
+    static Map<String, ImageVariantsDTO> variantsOf(List<String> urls, Map<String, ImageVariantsDTO> variants) {
+        Map<String, ImageVariantsDTO> result = new LinkedHashMap<>();
+        for (String url : urls) {
+            ImageVariantsDTO v = variants.get(url);
+            if (v != null) {
+                result.put(url, v);
+            }
+        }
+        return result;
+    }
+
+    // Rows are [recipeId, value] pairs, sorted by list_index within a recipe
+    private Map<Long, List<String>> groupByRecipe(List<Object[]> rows) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((String) row[1]);
+        }
+        return grouped;
+    }
+}
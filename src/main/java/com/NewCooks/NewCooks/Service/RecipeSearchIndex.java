@@ -0,0 +1,233 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Repository.RecipeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over recipe titles and descriptions. Text is split into lower-case
+ * word tokens; every query word matches indexed words it is a prefix of, so "chick cur" finds
+ * "Chicken Curry". Seeded at startup and kept current by RecipeService on add/update/delete.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipeSearchIndex {
+
+    private static final int IN_TITLE = 1;
+    private static final int IN_DESCRIPTION = 2;
+
+    private final RecipeRepository recipeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (recipeId -> IN_TITLE/IN_DESCRIPTION flags); sorted so prefixes are a range scan
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    // chefId -> that chef's recipe ids, so chef-scoped searches only score the chef's own recipes
+    private final Map<Long, Set<Long>> recipesByChef = new HashMap<>();
+
+    // terms: term -> IN_TITLE/IN_DESCRIPTION flags for this recipe, sorted for prefix lookups
+    private record Doc(Long recipeId, Long chefId, String title, String description, NavigableMap<String, Integer> terms) {
+    }
+
+    public record Hit(Long recipeId, String title, String description) {
+    }
+
+    @PostConstruct
+    void seed() {
+        List<Object[]> rows = recipeRepository.findAllSearchableText();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                put((Long) row[0], (Long) row[1], (String) row[2], (String) row[3]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Recipe recipe) {
+        lock.writeLock().lock();
+        try {
+            remove(recipe.getRecipeId());
+            put(recipe.getRecipeId(), recipe.getChef().getId(), recipe.getTitle(), recipe.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void unindex(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            remove(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit recipes where every query word prefixes a word of the title (or of the
+     * description too, when includeDescription is set), best matches first. chefId null means all chefs.
+     */
+    public List<Hit> search(String keyword, Long chefId, boolean includeDescription, int limit) {
+        List<String> queryTerms = tokenize(keyword);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int fieldMask = includeDescription ? IN_TITLE | IN_DESCRIPTION : IN_TITLE;
+        String phrase = keyword.trim().toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = chefId != null
+                    ? scoreChefRecipes(chefId, queryTerms, fieldMask)
+                    : scoreAll(queryTerms, fieldMask);
+
+            List<Doc> matches = new ArrayList<>(scores.size());
+            for (Map.Entry<Long, Integer> e : scores.entrySet()) {
+                Doc doc = docs.get(e.getKey());
+                String title = doc.title().toLowerCase(Locale.ROOT);
+                if (title.equals(phrase)) {
+                    e.setValue(e.getValue() + 20);
+                } else if (title.startsWith(phrase)) {
+                    e.setValue(e.getValue() + 10);
+                }
+                matches.add(doc);
+            }
+
+            matches.sort(Comparator
+                    .comparingInt((Doc d) -> -scores.get(d.recipeId()))
+                    .thenComparingInt(d -> d.title().length())
+                    .thenComparing(Doc::recipeId));
+
+            return matches.stream()
+                    .limit(limit)
+                    .map(d -> new Hit(d.recipeId(), d.title(), d.description()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Recipes matching every query term, via the global postings
+    private Map<Long, Integer> scoreAll(List<String> queryTerms, int fieldMask) {
+        Map<Long, Integer> scores = null;
+        for (String term : queryTerms) {
+            Map<Long, Integer> termScores = scoreTerm(term, fieldMask);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                for (Map.Entry<Long, Integer> e : scores.entrySet()) {
+                    e.setValue(e.getValue() + termScores.get(e.getKey()));
+                }
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    // Same scoring, but looking only at the chef's own recipes instead of the whole corpus
+    private Map<Long, Integer> scoreChefRecipes(Long chefId, List<String> queryTerms, int fieldMask) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Long recipeId : recipesByChef.getOrDefault(chefId, Set.of())) {
+            NavigableMap<String, Integer> terms = docs.get(recipeId).terms();
+            int total = 0;
+            for (String term : queryTerms) {
+                int best = 0;
+                for (Map.Entry<String, Integer> e : prefixRange(terms, term).entrySet()) {
+                    best = Math.max(best, score(e.getKey().equals(term), e.getValue() & fieldMask));
+                }
+                if (best == 0) {
+                    total = 0;
+                    break;
+                }
+                total += best;
+            }
+            if (total > 0) {
+                scores.put(recipeId, total);
+            }
+        }
+        return scores;
+    }
+
+    // Score of each recipe having an indexed word that starts with term: whole-word title hits rank highest
+    private Map<Long, Integer> scoreTerm(String term, int fieldMask) {
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> posting : prefixRange(postings, term).entrySet()) {
+            boolean exact = posting.getKey().equals(term);
+            for (Map.Entry<Long, Integer> e : posting.getValue().entrySet()) {
+                int score = score(exact, e.getValue() & fieldMask);
+                if (score > 0) {
+                    scores.merge(e.getKey(), score, Math::max);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static int score(boolean exact, int fields) {
+        if (fields == 0) {
+            return 0;
+        }
+        return (fields & IN_TITLE) != 0 ? (exact ? 4 : 3) : (exact ? 2 : 1);
+    }
+
+    private static <V> NavigableMap<String, V> prefixRange(NavigableMap<String, V> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    // Callers hold the write lock
+    private void put(Long recipeId, Long chefId, String title, String description) {
+        NavigableMap<String, Integer> termFields = new TreeMap<>();
+        for (String term : tokenize(title)) {
+            termFields.merge(term, IN_TITLE, (a, b) -> a | b);
+        }
+        for (String term : tokenize(description)) {
+            termFields.merge(term, IN_DESCRIPTION, (a, b) -> a | b);
+        }
+        termFields.forEach((term, fields) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(recipeId, fields));
+
+        docs.put(recipeId, new Doc(recipeId, chefId, title, description, termFields));
+        recipesByChef.computeIfAbsent(chefId, k -> new HashSet<>()).add(recipeId);
+    }
+
+    private void remove(Long recipeId) {
+        Doc doc = docs.remove(recipeId);
+        if (doc == null) {
+            return;
+        }
+        Set<Long> chefRecipes = recipesByChef.get(doc.chefId());
+        chefRecipes.remove(recipeId);
+        if (chefRecipes.isEmpty()) {
+            recipesByChef.remove(doc.chefId());
+        }
+        for (String term : doc.terms().keySet()) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(recipeId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
@@ -3,19 +3,22 @@ package com.NewCooks.NewCooks.Service;
 import com.NewCooks.NewCooks.DTO.*;
 import com.NewCooks.NewCooks.Entity.*;
 import com.NewCooks.NewCooks.Repository.*;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,8 +31,19 @@ public class RecipeService {
     private final ReviewRepository reviewRepository;
     private final RatingRepository ratingRepository;
     private final UserRepository userRepository;
-    private final Cloudinary cloudinary;
     final CloudinaryService cloudinaryService;
+    private final RecipeAggregateLoader recipeAggregateLoader;
+    private final ReviewLeaderboard reviewLeaderboard;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeTypeahead recipeTypeahead;
+    private final IngredientIndex ingredientIndex;
+    private final ConcurrentUploadService concurrentUploadService;
+    private final MediaAssetService mediaAssetService;
+    private final TransactionTemplate transactionTemplate;
+    private final AnalyticsRollups analyticsRollups;
+
+    @Value("${newcooks.search.max-results:20}")
+    private int maxSearchResults;
 
 
     public Recipe addRecipe(Long chefId, RecipeDTO dto, MultipartFile thumbnailFile, List<MultipartFile> imageFiles) {
@@ -49,21 +63,35 @@ public class RecipeService {
         r.setNutritionInfo(dto.getNutritionInfo());
         r.setInstructions(dto.getInstructions());
 
-        // Upload and set thumbnail
-        String thumbnailUrl = uploadFileToCloudinary(thumbnailFile);
-        r.setThumbnail(thumbnailUrl);
-
-        // Upload and set additional images
-        if (imageFiles != null && !imageFiles.isEmpty()) {
-            List<String> imageUrls = imageFiles.stream()
-                    .map(this::uploadFileToCloudinary)
-                    .collect(Collectors.toList());
-            r.setImages(imageUrls);
-        } else {
-            r.setImages(new ArrayList<>());
+        // Upload thumbnail and additional images in parallel; index 0 is the thumbnail
+        List<MultipartFile> files = new ArrayList<>();
+        files.add(thumbnailFile);
+        if (imageFiles != null) {
+            files.addAll(imageFiles);
         }
-
-        return recipeRepository.save(r);
+        List<String> urls = concurrentUploadService.uploadAll(files);
+        r.setThumbnail(urls.get(0));
+        r.setImages(urls.subList(1, urls.size()).stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+
+        // Only the row and the chef's counter share a transaction; uploads stay outside it
+        Recipe saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                Recipe inserted = recipeRepository.save(r);
+                chefRepository.applyAnalyticsChange(chefId, 1, 0, 0, 0);
+                return inserted;
+            });
+        } catch (RuntimeException e) {
+            releaseUploads(urls);
+            throw e;
+        }
+        reviewLeaderboard.recipeSaved(saved);
+        recipeSearchIndex.index(saved);
+        recipeTypeahead.index(saved);
+        ingredientIndex.index(saved);
+        return saved;
     }
 
     public Optional<Recipe> updateRecipe(Long chefId, Long recipeId, RecipeDTO dto, MultipartFile newThumbnailFile, List<MultipartFile> newImageFiles) {
@@ -86,18 +114,28 @@ public class RecipeService {
         existing.setUtensils(dto.getUtensils());
         existing.setNutritionInfo(dto.getNutritionInfo());
         existing.setInstructions(dto.getInstructions());
+
+        // Upload the new thumbnail and new images in parallel before touching the old ones
+        List<MultipartFile> files = new ArrayList<>();
+        files.add(newThumbnailFile);
+        if (newImageFiles != null) {
+            files.addAll(newImageFiles);
+        }
+        List<String> uploadedUrls = concurrentUploadService.uploadAll(files);
+
+        // Old images are only queued for deletion once the recipe itself has been saved
+        List<String> urlsToDelete = new ArrayList<>();
         if (newThumbnailFile != null && !newThumbnailFile.isEmpty()) {
             // Delete old thumbnail from Cloudinary if it exists
             if (existing.getThumbnail() != null && !existing.getThumbnail().isEmpty()) {
-                cloudinaryService.deleteImageFromCloud(cloudinaryService.extractPublicId(existing.getThumbnail()));
+                urlsToDelete.add(existing.getThumbnail());
             }
-            String newThumbnailUrl = uploadFileToCloudinary(newThumbnailFile);
-            existing.setThumbnail(newThumbnailUrl);
+            existing.setThumbnail(uploadedUrls.get(0));
         } else {
             // If the DTO's thumbnail is null/empty, it means it was removed on the frontend
             if (dto.getThumbnail() == null || dto.getThumbnail().isEmpty()) {
                 if (existing.getThumbnail() != null && !existing.getThumbnail().isEmpty()) {
-                    cloudinaryService.deleteImageFromCloud(cloudinaryService.extractPublicId(existing.getThumbnail()));
+                    urlsToDelete.add(existing.getThumbnail());
                 }
                 existing.setThumbnail(null);
             }
@@ -105,27 +143,72 @@ public class RecipeService {
 
         // Handle additional images update
         List<String> finalImageUrls = new ArrayList<>(dto.getImages() != null ? dto.getImages() : List.of());
-        if (newImageFiles != null && !newImageFiles.isEmpty()) {
-            for (MultipartFile file : newImageFiles) {
-                String newImageUrl = uploadFileToCloudinary(file);
-                finalImageUrls.add(newImageUrl);
-            }
-        }
+        uploadedUrls.subList(1, uploadedUrls.size()).stream()
+                .filter(Objects::nonNull)
+                .forEach(finalImageUrls::add);
 
         // Logic to delete images that were removed on the frontend
-        List<String> imagesToDelete = existing.getImages().stream()
+        existing.getImages().stream()
                 .filter(url -> !finalImageUrls.contains(url))
-                .collect(Collectors.toList());
+                .forEach(urlsToDelete::add);
+
+        existing.setImages(finalImageUrls);
 
-        for(String url : imagesToDelete) {
-            cloudinaryService.deleteImageFromCloud(cloudinaryService.extractPublicId(url));
+        Recipe saved;
+        try {
+            saved = recipeRepository.save(existing);
+        } catch (RuntimeException e) {
+            releaseUploads(uploadedUrls);
+            throw e;
         }
+        cloudinaryService.deleteImagesFromCloud(urlsToDelete.stream()
+                .map(cloudinaryService::extractPublicId)
+                .toList());
+        reviewLeaderboard.recipeSaved(saved);
+        recipeSearchIndex.index(saved);
+        recipeTypeahead.index(saved);
+        ingredientIndex.index(saved);
+        return Optional.of(saved);
+    }
 
-        existing.setImages(finalImageUrls);
+    // The recipe holding these freshly uploaded URLs was never saved: give back the asset references
+    // uploadAll took, or deduplicated assets would never reach zero and never leave storage
+    private void releaseUploads(List<String> urls) {
+        cloudinaryService.deleteImagesFromCloud(urls.stream()
+                .filter(Objects::nonNull)
+                .map(cloudinaryService::extractPublicId)
+                .toList());
+    }
+
+    // Attaches already-stored images (direct uploads): a new thumbnail replaces the old one, images are appended
+    @Transactional
+    public Recipe attachImages(Long chefId, Long recipeId, String thumbnailUrl, List<String> imageUrls) {
+        Recipe existing = recipeRepository.findById(recipeId)
+                .orElseThrow(() -> new RuntimeException("Recipe not found"));
+        if (!existing.getChef().getId().equals(chefId)) {
+            throw new RuntimeException("Cannot update another chef's recipe");
+        }
+
+        String oldThumbnail = existing.getThumbnail();
+        if (thumbnailUrl != null) {
+            existing.setThumbnail(thumbnailUrl);
+        }
+        existing.getImages().addAll(imageUrls);
 
-        return Optional.of(recipeRepository.save(existing));
+        Recipe saved = recipeRepository.save(existing);
+        if (thumbnailUrl != null && oldThumbnail != null && !oldThumbnail.isEmpty()) {
+            cloudinaryService.deleteImageFromCloud(cloudinaryService.extractPublicId(oldThumbnail));
+        }
+        TransactionHooks.afterCommit(() -> {
+            reviewLeaderboard.recipeSaved(saved);
+            recipeSearchIndex.index(saved);
+            recipeTypeahead.index(saved);
+            ingredientIndex.index(saved);
+        });
+        return saved;
     }
 
+    @Transactional
     public void deleteRecipe(Long chefId, Long recipeId) {
         // 1. Find the recipe to be deleted
         Recipe existing = recipeRepository.findById(recipeId)
@@ -136,22 +219,32 @@ public class RecipeService {
             throw new RuntimeException("Cannot delete another chef's recipe");
         }
 
-        // 3. Delete the thumbnail from Cloudinary if it exists
+        // 3. Release the thumbnail and all additional images; ones no other recipe or profile
+        //    shares are queued for deletion, committing (or rolling back) with the recipe delete
+        List<String> publicIds = new ArrayList<>();
         if (existing.getThumbnail() != null && !existing.getThumbnail().isEmpty()) {
-            String publicId = cloudinaryService.extractPublicId(existing.getThumbnail());
-            cloudinaryService.deleteImageFromCloud(publicId);
+            publicIds.add(cloudinaryService.extractPublicId(existing.getThumbnail()));
         }
-
-        // 4. Delete all additional images from Cloudinary
-        if (existing.getImages() != null && !existing.getImages().isEmpty()) {
+        if (existing.getImages() != null) {
             for (String imageUrl : existing.getImages()) {
-                String publicId = cloudinaryService.extractPublicId(imageUrl);
-                cloudinaryService.deleteImageFromCloud(publicId);
+                publicIds.add(cloudinaryService.extractPublicId(imageUrl));
             }
         }
-
-        // 5. Finally, delete the recipe record from your database
+        cloudinaryService.deleteImagesFromCloud(publicIds);
+
+        // 4. Finally, delete the recipe record from your database (its reviews and ratings
+        //    cascade, so they leave the chef's analytics with it)
+        chefRepository.removeRecipeFromAnalytics(recipeId);
+        userRepository.removeRecipeFromAnalytics(recipeId);
+        recipeRepository.deleteAllFavoritesOfRecipe(recipeId);
+        analyticsRollups.recipeDeleted(recipeId);
         recipeRepository.delete(existing);
+        TransactionHooks.afterCommit(() -> {
+            reviewLeaderboard.recipeDeleted(recipeId);
+            recipeSearchIndex.unindex(recipeId);
+            recipeTypeahead.unindex(recipeId);
+            ingredientIndex.unindex(recipeId);
+        });
     }
 
     public Page<Recipe> getAllRecipes(int page, int size) {
@@ -159,6 +252,66 @@ public class RecipeService {
         return recipeRepository.findAll(pageable);
     }
 
+    public CursorPageDTO<RecipeResponseDTO> getRecipeFeed(String cursor, int size, String sort) {
+        FeedCursor.Sort feedSort = FeedCursor.Sort.from(sort);
+        FeedCursor after = cursor != null && !cursor.isBlank() ? FeedCursor.decode(cursor) : null;
+        if (after != null && after.sort() != feedSort) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor was issued for a different sort");
+        }
+
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Recipe> rows = switch (feedSort) {
+            case NEWEST -> after == null
+                    ? recipeRepository.findNewestFeed(limit)
+                    : recipeRepository.findNewestFeedAfter(after.lastId(), limit);
+            case TITLE -> after == null
+                    ? recipeRepository.findTitleFeed(limit)
+                    : recipeRepository.findTitleFeedAfter(after.sortValue(), after.lastId(), limit);
+        };
+
+        boolean hasMore = rows.size() > size;
+        List<Recipe> pageRows = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Recipe last = pageRows.get(pageRows.size() - 1);
+            String sortValue = feedSort == FeedCursor.Sort.TITLE ? last.getTitle() : null;
+            nextCursor = new FeedCursor(feedSort, sortValue, last.getRecipeId()).encode();
+        }
+
+        return new CursorPageDTO<>(toRecipeResponseDTOs(pageRows), nextCursor, hasMore);
+    }
+
+    // "What can I cook": minMatch null means every requested ingredient and utensil must be present
+    public List<IngredientSearchResultDTO> searchByIngredients(List<String> ingredients, List<String> utensils,
+                                                               Integer minMatch, Integer limit) {
+        List<String> wantedIngredients = ingredients != null ? ingredients : List.of();
+        List<String> wantedUtensils = utensils != null ? utensils : List.of();
+        int max = limit != null ? Math.min(limit, maxSearchResults) : maxSearchResults;
+
+        IngredientIndex.SearchResult found = ingredientIndex.search(wantedIngredients, wantedUtensils, minMatch, max);
+        List<IngredientIndex.Match> matches = found.matches();
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, RecipeCardDTO> cards = recipeRepository.findCardsByIds(
+                        matches.stream().map(IngredientIndex.Match::recipeId).toList())
+                .stream()
+                .collect(Collectors.toMap(RecipeCardDTO::getRecipeId, c -> c));
+        int requested = found.requested();
+
+        List<IngredientSearchResultDTO> results = new ArrayList<>();
+        for (IngredientIndex.Match match : matches) {
+            RecipeCardDTO card = cards.get(match.recipeId());
+            if (card != null) {
+                results.add(new IngredientSearchResultDTO(card, match.matched(), requested));
+            }
+        }
+        return results;
+    }
+
     public Optional<Recipe> getRecipeById(Long id) {
         return recipeRepository.findById(id);
     }
@@ -167,6 +320,18 @@ public class RecipeService {
         return recipeRepository.findByChefId(chefId);
     }
 
+    public Page<RecipeCardDTO> getRecipeCards(int page, int size) {
+        return recipeRepository.findAllCards(PageRequest.of(page, size));
+    }
+
+    public List<RecipeCardDTO> getRecipeCardsByChef(Long chefId) {
+        return recipeRepository.findCardsByChefId(chefId);
+    }
+
+    public List<RecipeResponseDTO> getRecipeResponseDTOsByChef(Long chefId) {
+        return toRecipeResponseDTOs(recipeRepository.findByChefId(chefId));
+    }
+
     private RecipeDTO mapToDTO(Recipe recipe) {
         return new RecipeDTO(
                 recipe.getRecipeId(),
@@ -190,6 +355,9 @@ public class RecipeService {
     {
         Chef chef = recipe.getChef();
         Chef_User_DTO chefUserDTO = new Chef_User_DTO(chef.getId(), chef.getName(), chef.getEmail());
+        List<String> urls = new ArrayList<>(recipe.getImages());
+        urls.add(recipe.getThumbnail());
+        Map<String, ImageVariantsDTO> variants = mediaAssetService.variantsFor(urls);
         return new RecipeResponseDTO(
                 recipe.getRecipeId(),
                 recipe.getTitle(),
@@ -200,70 +368,79 @@ public class RecipeService {
                 chefUserDTO,
                 recipe.getInstructions(),
                 recipe.getThumbnail(),
-                recipe.getImages()
+                recipe.getImages(),
+                variants.get(recipe.getThumbnail()),
+                RecipeAggregateLoader.variantsOf(recipe.getImages(), variants)
         );
     }
 
-    // A NEW HELPER METHOD TO UPLOAD A FILE TO CLOUDINARY
-    private String uploadFileToCloudinary(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            return null;
-        }
-        try {
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-            return (String) uploadResult.get("secure_url");
-        } catch (IOException e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to upload file to Cloudinary");
-        }
+    // Batch variant of toRecipeResponseDTO for list endpoints: fixed number of queries per page
+    public List<RecipeResponseDTO> toRecipeResponseDTOs(List<Recipe> recipes) {
+        return recipeAggregateLoader.toResponseDTOs(recipes);
     }
 
-
+    public Page<RecipeResponseDTO> toRecipeResponsePage(Page<Recipe> recipes) {
+        return new PageImpl<>(toRecipeResponseDTOs(recipes.getContent()), recipes.getPageable(), recipes.getTotalElements());
+    }
 
     //Add or Update Rating
-    @Transactional
     public RatingResponseDTO addOrUpdateRating(Long recipeId, Long userId, int stars) {
         if (stars < 1 || stars > 5) {
             throw new RuntimeException("Rating must be between 1 and 5");
         }
 
-        Recipe recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        RatingEntity rating = ratingRepository.findByUserAndRecipe(user, recipe)
-                .orElse(new RatingEntity());
+        // A second attempt is only needed when two first ratings race; by then the winner has committed
+        for (int attempt = 0; attempt < 2; attempt++) {
+            RatingResponseDTO saved = transactionTemplate.execute(status -> {
+                RatingResponseDTO dto = upsertRating(recipeId, userId, stars);
+                if (dto == null) {
+                    status.setRollbackOnly();
+                }
+                return dto;
+            });
+            if (saved != null) {
+                return saved;
+            }
+        }
+        throw new RuntimeException("Rating was changed concurrently, please try again");
+    }
 
-        rating.setRecipe(recipe);
-        rating.setUser(user);
-        rating.setRatingValue(stars);
+    // Null when the replaced value is unknown (lost an insert race); the caller rolls back and retries
+    private RatingResponseDTO upsertRating(Long recipeId, Long userId, int stars) {
+        List<Object[]> rows = ratingRepository.upsert(userId, recipeId, stars);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Recipe not found");
+        }
+        Object[] row = rows.get(0);
+        boolean inserted = (Boolean) row[1];
+        if (!inserted && row[2] == null) {
+            return null;
+        }
+        int previousStars = inserted ? 0 : ((Number) row[2]).intValue();
 
-        RatingEntity savedRating = ratingRepository.save(rating);
+        recipeRepository.applyRatingChange(recipeId, previousStars, stars);
+        chefRepository.applyAnalyticsChangeForRecipe(recipeId, 0, stars - previousStars, previousStars == 0 ? 1 : 0);
+        analyticsRollups.record(recipeId, 0, previousStars == 0 ? 1 : 0, stars);
+        if (previousStars == 0) {
+            userRepository.applyAnalyticsChange(userId, 0, 0, 1);
+        }
 
-        return RatingResponseDTO.fromEntity(savedRating);
+        Chef_User_DTO user = new Chef_User_DTO(userId, (String) row[3], (String) row[4]);
+        return new RatingResponseDTO(((Number) row[0]).longValue(), user, recipeId, stars);
     }
 
     public RatingStatsDTO getRatingStats(Long recipeId) {
         Recipe recipe = recipeRepository.findById(recipeId)
                 .orElseThrow(() -> new RuntimeException("Recipe not found"));
 
-        Double avg = ratingRepository.findAverageRatingByRecipe(recipe);
-        List<Object[]> starCounts = ratingRepository.countRatingsByStars(recipe);
-
-        long total = 0;
         Map<Integer, Long> countsMap = new HashMap<>();
-        for (int i = 1; i <= 5; i++) countsMap.put(i, 0L); // initialize
-
-        for (Object[] row : starCounts) {
-            int star = (Integer) row[0];
-            long count = (Long) row[1];
-            countsMap.put(star, count);
-            total += count;
-        }
+        countsMap.put(1, recipe.getRatingOneStar());
+        countsMap.put(2, recipe.getRatingTwoStar());
+        countsMap.put(3, recipe.getRatingThreeStar());
+        countsMap.put(4, recipe.getRatingFourStar());
+        countsMap.put(5, recipe.getRatingFiveStar());
 
-        return new RatingStatsDTO(avg != null ? avg : 0.0, total, countsMap);
+        return new RatingStatsDTO(averageRating(recipe), recipe.getRatingCount(), countsMap);
     }
 
 
@@ -271,20 +448,38 @@ public class RecipeService {
     public double getAverageRating(Long recipeId) {
         Recipe recipe = recipeRepository.findById(recipeId)
                 .orElseThrow(() -> new RuntimeException("Recipe not found"));
-        Double avg = ratingRepository.findAverageRatingByRecipe(recipe);
-        return avg != null ? avg : 0.0;
+        return averageRating(recipe);
     }
 
+    private double averageRating(Recipe recipe) {
+        return recipe.getRatingCount() > 0 ? (double) recipe.getRatingSum() / recipe.getRatingCount() : 0.0;
+    }
+
+    // One DELETE ... RETURNING gives the stars and creation time the counters and rollups need
+    @Transactional
     public void deleteRating(Long userId, Long recipeId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Recipe recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
+        List<Object[]> rows = ratingRepository.deleteReturning(userId, recipeId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Rating not found");
+        }
+        int stars = ((Number) rows.get(0)[0]).intValue();
+        Instant createdAt = toInstant(rows.get(0)[1]);
 
-        RatingEntity rating = ratingRepository.findByUserAndRecipe(user, recipe)
-                .orElseThrow(() -> new RuntimeException("Rating not found"));
+        recipeRepository.applyRatingChange(recipeId, stars, 0);
+        chefRepository.applyAnalyticsChangeForRecipe(recipeId, 0, -stars, -1);
+        analyticsRollups.recordRemoval(recipeId, createdAt, 0, -1);
+        userRepository.applyAnalyticsChange(userId, 0, 0, -1);
+    }
 
-        ratingRepository.delete(rating);
+    // The JDBC driver hands timestamptz columns of native queries back as Timestamp or OffsetDateTime
+    private static Instant toInstant(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof OffsetDateTime dateTime) {
+            return dateTime.toInstant();
+        }
+        return (Instant) value;
     }
 
     //Add or Update Review
@@ -294,32 +489,51 @@ public class RecipeService {
             throw new RuntimeException("Review cannot be empty");
         }
 
-        Recipe recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        List<Object[]> rows = reviewRepository.upsert(userId, recipeId, reviewText);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Recipe not found");
+        }
+        Object[] row = rows.get(0);
+        boolean isNew = (Boolean) row[1];
+
+        if (isNew) {
+            chefRepository.applyAnalyticsChangeForRecipe(recipeId, 1, 0, 0);
+            analyticsRollups.record(recipeId, 1, 0, 0);
+            userRepository.applyAnalyticsChange(userId, 0, 1, 0);
+            TransactionHooks.afterCommit(() -> {
+                reviewLeaderboard.reviewCountChanged(recipeId, 1);
+                recipeTypeahead.popularityChanged(recipeId);
+            });
+        }
+        return new ReviewResponseDTO(((Number) row[0]).longValue(), (String) row[2], recipeId, reviewText,
+                (String) row[3], (String) row[4]);
+    }
 
-        ReviewEntity review = reviewRepository.findByUserAndRecipe(user, recipe)
-                .orElse(new ReviewEntity());
+    //  Reviews for a recipe, newest first; pass back nextCursor for the following page
+    public CursorPageDTO<ReviewResponseDTO> getReviewsForRecipe(Long recipeId, String cursor, int size) {
+        FeedCursor after = cursor != null && !cursor.isBlank() ? FeedCursor.decode(cursor) : null;
+        if (after != null && after.sort() != FeedCursor.Sort.NEWEST) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
 
-        review.setRecipe(recipe);
-        review.setUser(user);
-        review.setReviewText(reviewText);
+        // Fetch one extra row to know whether another page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ReviewResponseDTO> rows = after == null
+                ? reviewRepository.findPageByRecipe(recipeId, limit)
+                : reviewRepository.findPageByRecipeAfter(recipeId, after.lastId(), limit);
 
-        ReviewEntity savedReview = reviewRepository.save(review);
-        return ReviewResponseDTO.fromEntity(savedReview);
-    }
+        boolean hasMore = rows.size() > size;
+        List<ReviewResponseDTO> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+                ? new FeedCursor(FeedCursor.Sort.NEWEST, null, pageRows.get(pageRows.size() - 1).getId()).encode()
+                : null;
 
-    //  Get all reviews for a recipe
-    public List<ReviewResponseDTO> getReviewsForRecipe(Long recipeId) {
-        List<ReviewEntity> reviews = reviewRepository.findByRecipe_RecipeId(recipeId);
-        return reviews.stream()
-                .map(ReviewResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+        return new CursorPageDTO<>(pageRows, nextCursor, hasMore);
     }
 
 
     //Delete a review
+    @Transactional
     public void deleteReview(Long userId, Long reviewId) {
         ReviewEntity review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found"));
@@ -328,87 +542,69 @@ public class RecipeService {
             throw new RuntimeException("Cannot delete another user's review");
         }
 
+        Long recipeId = review.getRecipe().getRecipeId();
         reviewRepository.delete(review);
+        chefRepository.applyAnalyticsChangeForRecipe(recipeId, -1, 0, 0);
+        analyticsRollups.recordRemoval(recipeId, review.getCreatedAt(), -1, 0);
+        userRepository.applyAnalyticsChange(userId, 0, -1, 0);
+        TransactionHooks.afterCommit(() -> {
+            reviewLeaderboard.reviewCountChanged(recipeId, -1);
+            recipeTypeahead.popularityChanged(recipeId);
+        });
     }
 
 
     public List<MostReviewedRecipeDTO> getChefMostReviewedRecipes(int limit, Long chefId) {
-        Pageable pageable = PageRequest.of(0, limit);
-
-        // Pass chefId to repository query
-        List<Object[]> results = reviewRepository.findMostReviewedRecipesByChefId(chefId, pageable);
-
-        List<MostReviewedRecipeDTO> dtoList = new ArrayList<>();
-        for (Object[] result : results) {
-            MostReviewedRecipeDTO dto = new MostReviewedRecipeDTO(
-                    (Long) result[0],
-                    (String) result[1],
-                    (String) result[2],
-                    (Long) result[3]
-            );
-            dtoList.add(dto);
-        }
-        return dtoList;
+        return reviewLeaderboard.topForChef(chefId, limit);
     }
 
 
-    //for chef homepage analytics
+    //for chef homepage analytics: one row read of the counters kept on tbl_chef
     @Transactional(readOnly = true)
     public ChefAnalyticsDTO getChefAnalytics(Long chefId) {
-
-        // Total recipes
-        int totalRecipes = recipeRepository.countByChefId(chefId);
-
-        if (totalRecipes == 0) {
+        Chef chef = chefRepository.findById(chefId).orElse(null);
+        if (chef == null || chef.getAnalyticsRecipeCount() == 0) {
             return new ChefAnalyticsDTO(0, 0.0, 0.0);
         }
 
-        // Fetch all recipes
-        List<Recipe> recipes = recipeRepository.findByChefId(chefId);
-        List<Long> recipeIds = recipes.stream().map(r -> r.getRecipeId()).toList();
+        int totalRecipes = (int) chef.getAnalyticsRecipeCount();
+        double avgReviews = (double) chef.getAnalyticsReviewCount() / totalRecipes;
+        double avgRating = chef.getAnalyticsRatingCount() > 0
+                ? (double) chef.getAnalyticsRatingSum() / chef.getAnalyticsRatingCount()
+                : 0.0;
 
-        // Fetch all reviews
-        List<ReviewEntity> reviews = reviewRepository.findByRecipe_RecipeIdIn(recipeIds);
-        double avgReviews = (double) reviews.size() / totalRecipes;
+        return new ChefAnalyticsDTO(totalRecipes, avgReviews, avgRating);
+    }
 
-        // Fetch all ratings
-        List<RatingEntity> ratings = ratingRepository.findByRecipeIn(recipes);
-        double avgRating = ratings.stream()
-                .mapToInt(RatingEntity::getRatingValue)
-                .average()
-                .orElse(0.0);
+    // "Last N days" for the chef's dashboard, from the daily rollups
+    public WindowAnalyticsDTO getChefRecentAnalytics(Long chefId, int days) {
+        return analyticsRollups.forChef(chefId, days);
+    }
 
-        return new ChefAnalyticsDTO(totalRecipes, avgReviews, avgRating);
+    public WindowAnalyticsDTO getRecipeRecentAnalytics(Long chefId, Long recipeId, int days) {
+        Long ownerId = recipeRepository.findChefIdByRecipeId(recipeId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe not found"));
+        if (!ownerId.equals(chefId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Cannot view another chef's recipe analytics");
+        }
+        return analyticsRollups.forRecipe(recipeId, days);
     }
 
+    // One row read of the counters kept on tbl_user; favoriteRecipes is never initialised
     @Transactional(readOnly = true)
     public UserAnalyticsDTO getUserAnalytics(Long userId) {
-
-        int totalRecipesTried = reviewRepository.countByUserId(userId);
-        int totalRatingsGiven = ratingRepository.countByUserId(userId);
-
-        // Get total favorites by loading the user and counting the Set size
-        int totalFavoritesAdded = userRepository.findById(userId)
-                .map(user -> user.getFavoriteRecipes().size())
-                .orElse(0);
-
-        return new UserAnalyticsDTO(totalRecipesTried, totalFavoritesAdded, totalRatingsGiven);
+        return userRepository.findById(userId)
+                .map(user -> new UserAnalyticsDTO(
+                        (int) user.getAnalyticsReviewCount(),
+                        (int) user.getAnalyticsFavoriteCount(),
+                        (int) user.getAnalyticsRatingCount()))
+                .orElse(new UserAnalyticsDTO(0, 0, 0));
     }
 
 
 
     public List<MostReviewedRecipeDTO> getMostReviewedRecipes(int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-
-        // Fetch most-reviewed recipes without chef filter
-        List<Object[]> results = reviewRepository.findMostReviewedRecipes(pageable);
-
-        // Map results to DTOs
-        return results.stream().map(result -> new MostReviewedRecipeDTO(
-                (Long) result[0],
-                (String) result[1],
-                (String) result[2],
-                (Long) result[3]
-        )).collect(Collectors.toList());
+        // Served from memory; limit is capped at newcooks.leaderboard.max-k
+        return reviewLeaderboard.top(limit);
     }
 }
@@ -0,0 +1,293 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.DTO.RecipeSearchSuggestionDTO;
+import com.NewCooks.NewCooks.DTO.TypeaheadResponseDTO;
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Repository.RecipeRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over recipe titles for search-box suggestions. Every title is inserted from each
+ * word start ("butter chicken" is reachable from "bu" and from "chi"). Each node caches its
+ * top-K recipes by review count, merged from the recipes ending at the node and its children's
+ * cached top-Ks, so a lookup never walks a whole subtree. The cache is dropped along a key's path
+ * when the recipe is added, removed or gains/loses reviews, and rebuilt on the next lookup that
+ * reaches it; sibling subtrees keep theirs.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipeTypeahead {
+
+    private static final int SHORT_DESCRIPTION_LENGTH = 80;
+
+    private final RecipeRepository recipeRepository;
+    private final ReviewLeaderboard reviewLeaderboard;
+
+    @Value("${newcooks.typeahead.max-suggestions:10}")
+    private int maxSuggestions;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private record Entry(Long recipeId, String title, String shortDescription, Set<String> keys) {
+    }
+
+    // Review counts are the ones seen when the ranking was built; complete means nothing was cut off
+    private record Ranked(long[] recipeIds, long[] reviews, boolean complete) {
+    }
+
+    // Children are kept in sorted parallel arrays instead of a map per node
+    private static final class Node {
+        char[] labels = new char[0];
+        Node[] children = new Node[0];
+        Set<Long> terminal; // recipes with a key ending exactly here
+        int keyCount;       // keys in this subtree, used for pruning
+        volatile Ranked top;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            Node node = new Node();
+            newLabels[at] = c;
+            newChildren[at] = node;
+            labels = newLabels;
+            children = newChildren;
+            return node;
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(labels, i + 1, newLabels, i, labels.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+
+    @PostConstruct
+    void seed() {
+        List<Object[]> rows = recipeRepository.findAllSearchableText();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                insert((Long) row[0], (String) row[2], (String) row[3]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public TypeaheadResponseDTO suggest(String prefix, Integer limit) {
+        int k = limit != null ? Math.max(0, Math.min(limit, maxSuggestions)) : maxSuggestions;
+        String key = normalize(prefix);
+        if (key.isEmpty() || k == 0) {
+            return new TypeaheadResponseDTO(prefix, List.of(), false);
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node == null) {
+                return new TypeaheadResponseDTO(prefix, List.of(), true);
+            }
+
+            Ranked ranked = top(node);
+            int count = Math.min(k, ranked.recipeIds().length);
+            List<RecipeSearchSuggestionDTO> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Entry e = entries.get(ranked.recipeIds()[i]);
+                suggestions.add(new RecipeSearchSuggestionDTO(e.recipeId(), e.title(), e.shortDescription()));
+            }
+            return new TypeaheadResponseDTO(prefix, suggestions, ranked.complete() && count == ranked.recipeIds().length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(Recipe recipe) {
+        lock.writeLock().lock();
+        try {
+            delete(recipe.getRecipeId());
+            insert(recipe.getRecipeId(), recipe.getTitle(), recipe.getDescription());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void unindex(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            delete(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called after the recipe's review count changed so cached rankings on its paths are rebuilt
+    public void popularityChanged(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(recipeId);
+            if (entry == null) {
+                return;
+            }
+            for (String key : entry.keys()) {
+                Node node = root;
+                node.top = null;
+                for (int i = 0; i < key.length() && node != null; i++) {
+                    node = node.child(key.charAt(i));
+                    if (node != null) {
+                        node.top = null;
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The node's cached ranking, building it (and any missing ranking below it) on a miss.
+    // Callers hold the read lock; racing readers compute the same value.
+    private Ranked top(Node node) {
+        Ranked ranked = node.top;
+        if (ranked == null) {
+            ranked = rank(node);
+            node.top = ranked;
+        }
+        return ranked;
+    }
+
+    // The top maxSuggestions of a subtree are among the recipes ending here and the children's own
+    // top maxSuggestions, so only those few candidates are compared
+    private Ranked rank(Node node) {
+        Map<Long, Long> candidates = new HashMap<>();
+        if (node.terminal != null) {
+            for (Long id : node.terminal) {
+                candidates.put(id, reviewLeaderboard.reviewCount(id));
+            }
+        }
+        boolean complete = true;
+        for (Node child : node.children) {
+            Ranked childTop = top(child);
+            for (int i = 0; i < childTop.recipeIds().length; i++) {
+                candidates.put(childTop.recipeIds()[i], childTop.reviews()[i]);
+            }
+            complete &= childTop.complete();
+        }
+
+        List<Long> ordered = new ArrayList<>(candidates.keySet());
+        ordered.sort(Comparator
+                .comparingLong((Long id) -> -candidates.get(id))
+                .thenComparing(id -> entries.get(id).title().length())
+                .thenComparing(id -> id));
+        int count = Math.min(ordered.size(), maxSuggestions);
+        long[] ids = new long[count];
+        long[] reviews = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = ordered.get(i);
+            reviews[i] = candidates.get(ordered.get(i));
+        }
+        return new Ranked(ids, reviews, complete && count == ordered.size());
+    }
+
+    // Callers hold the write lock
+    private void insert(Long recipeId, String title, String description) {
+        Set<String> keys = keysFor(title);
+        for (String key : keys) {
+            Node node = root;
+            node.keyCount++;
+            node.top = null;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+                node.keyCount++;
+                node.top = null;
+            }
+            if (node.terminal == null) {
+                node.terminal = new HashSet<>(2);
+            }
+            node.terminal.add(recipeId);
+        }
+        String shortDescription = description != null && description.length() > SHORT_DESCRIPTION_LENGTH
+                ? description.substring(0, SHORT_DESCRIPTION_LENGTH) + "..."
+                : description;
+        entries.put(recipeId, new Entry(recipeId, title, shortDescription, keys));
+    }
+
+    private void delete(Long recipeId) {
+        Entry entry = entries.remove(recipeId);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys()) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i].child(key.charAt(i));
+            }
+            path[key.length()].terminal.remove(recipeId);
+            for (int i = key.length(); i >= 0; i--) {
+                path[i].keyCount--;
+                path[i].top = null;
+                if (i > 0 && path[i].keyCount == 0) {
+                    path[i - 1].removeChild(key.charAt(i - 1));
+                }
+            }
+        }
+    }
+
+    // The normalised title plus its suffix starting at every later word, where a word starts after
+    // any non-alphanumeric character ("butter-chicken" is reachable from "chi"), as in RecipeSearchIndex
+    private Set<String> keysFor(String title) {
+        String normalized = normalize(title);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return keys;
+        }
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i)) && !Character.isLetterOrDigit(normalized.charAt(i - 1))) {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+}
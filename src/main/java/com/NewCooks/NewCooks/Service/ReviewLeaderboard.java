@@ -0,0 +1,149 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.DTO.MostReviewedRecipeDTO;
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Repository.ReviewRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory "most reviewed" ranking, globally and per chef. Seeded from the database once at
+ * startup and then kept current by RecipeService as recipes and reviews are added or removed,
+ * so top-K reads never hit tbl_review. Each instance only sees its own writes after seeding.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReviewLeaderboard {
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong(Entry::reviews).reversed()
+            .thenComparingLong(Entry::recipeId);
+
+    private final ReviewRepository reviewRepository;
+
+    @Value("${newcooks.leaderboard.max-k:50}")
+    private int maxK;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> byRecipe = new HashMap<>();
+    private final NavigableSet<Entry> global = new TreeSet<>(RANKING);
+    private final Map<Long, NavigableSet<Entry>> byChef = new HashMap<>();
+
+    private record Entry(long recipeId, long chefId, String title, String thumbnail, long reviews) {
+        Entry withReviews(long newCount) {
+            return new Entry(recipeId, chefId, title, thumbnail, newCount);
+        }
+    }
+
+    @PostConstruct
+    void seed() {
+        List<Object[]> rows = reviewRepository.countReviewsPerRecipe();
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                put(new Entry((Long) row[0], (Long) row[1], (String) row[2], (String) row[3], (Long) row[4]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<MostReviewedRecipeDTO> top(int limit) {
+        lock.readLock().lock();
+        try {
+            return firstK(global, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<MostReviewedRecipeDTO> topForChef(Long chefId, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> ranking = byChef.get(chefId);
+            return ranking == null ? List.of() : firstK(ranking, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long reviewCount(Long recipeId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byRecipe.get(recipeId);
+            return entry == null ? 0 : entry.reviews();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Inserts a new recipe or refreshes the title/thumbnail of an existing one, keeping its count
+    public void recipeSaved(Recipe recipe) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = remove(recipe.getRecipeId());
+            long reviews = existing == null ? 0 : existing.reviews();
+            put(new Entry(recipe.getRecipeId(), recipe.getChef().getId(), recipe.getTitle(), recipe.getThumbnail(), reviews));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void recipeDeleted(Long recipeId) {
+        lock.writeLock().lock();
+        try {
+            remove(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void reviewCountChanged(Long recipeId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = remove(recipeId);
+            if (existing != null) {
+                put(existing.withReviews(Math.max(0, existing.reviews() + delta)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<MostReviewedRecipeDTO> firstK(NavigableSet<Entry> ranking, int limit) {
+        int k = Math.min(limit, maxK);
+        List<MostReviewedRecipeDTO> result = new ArrayList<>(Math.max(k, 0));
+        Iterator<Entry> it = ranking.iterator();
+        while (result.size() < k && it.hasNext()) {
+            Entry e = it.next();
+            result.add(new MostReviewedRecipeDTO(e.recipeId(), e.title(), e.thumbnail(), e.reviews()));
+        }
+        return result;
+    }
+
+    // Callers hold the write lock
+    private void put(Entry entry) {
+        byRecipe.put(entry.recipeId(), entry);
+        global.add(entry);
+        byChef.computeIfAbsent(entry.chefId(), k -> new TreeSet<>(RANKING)).add(entry);
+    }
+
+    private Entry remove(Long recipeId) {
+        Entry entry = byRecipe.remove(recipeId);
+        if (entry != null) {
+            global.remove(entry);
+            NavigableSet<Entry> chefRanking = byChef.get(entry.chefId());
+            chefRanking.remove(entry);
+            if (chefRanking.isEmpty()) {
+                byChef.remove(entry.chefId());
+            }
+        }
+        return entry;
+    }
+}
@@ -4,19 +4,24 @@ import com.NewCooks.NewCooks.DTO.*;
 import com.NewCooks.NewCooks.Entity.Chef;
 import com.NewCooks.NewCooks.Entity.Recipe;
 import com.NewCooks.NewCooks.Entity.User;
+import com.NewCooks.NewCooks.Repository.RatingRepository;
 import com.NewCooks.NewCooks.Repository.RecipeRepository;
+import com.NewCooks.NewCooks.Repository.ReviewRepository;
 import com.NewCooks.NewCooks.Repository.UserRepository;
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.MailException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,10 +33,21 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final RecipeRepository recipeRepository;
-    private final Cloudinary cloudinary;
+    private final MediaUploadService mediaUploadService;
     private final CloudinaryService cloudinaryService;
     private final RecipeService recipeService;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeTypeahead recipeTypeahead;
+    private final RatingRepository ratingRepository;
+    private final ReviewRepository reviewRepository;
 
+    @Value("${newcooks.search.max-results:20}")
+    private int maxSearchResults;
+
+    @Value("${newcooks.user.recipe-state.max-ids:100}")
+    private int maxRecipeStateIds;
+
+    @Transactional
     public User registerUser(UserSignupDTO dto, String appBaseUrl) {
         if (userRepository.existsByEmail(dto.getEmail())) {
             throw new RuntimeException("Email already in use");
@@ -43,17 +59,23 @@ public class UserService {
         user.setActive(false);
         user.setActivationToken(UUID.randomUUID().toString());
         User saved = userRepository.save(user);
-        try {
-            String activationLink = appBaseUrl + "/auth/activate?token=" + user.getActivationToken();
-            emailService.sendActivationEmail(saved.getEmail(), activationLink);
-        } catch (MailException e) {
-            System.err.println("Failed to send activation email: " + e.getMessage());
-            throw new RuntimeException("Registration successful but failed to send activation email. Please contact support.");
-        }
+        // Queued in this transaction: the account and its activation email commit together
+        String activationLink = appBaseUrl + "/auth/activate?token=" + user.getActivationToken();
+        emailService.sendActivationEmail(saved.getEmail(), activationLink);
 
         return saved;
     }
 
+    // Sets the new password and deactivates the account until the emailed link is followed
+    @Transactional
+    public void resetPassword(User user, String newPassword, String token, String activationLink) {
+        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setActive(false); // Require reactivation
+        user.setActivationToken(token);
+        userRepository.save(user);
+        emailService.sendActivationEmail(user.getEmail(), activationLink);
+    }
+
     public boolean activateUserByToken(String token) {
         Optional<User> userOpt = userRepository.findByActivationToken(token);
         if (userOpt.isEmpty()) {
@@ -83,7 +105,7 @@ public class UserService {
                 cloudinaryService.deleteImageFromCloud(publicId);
             }
             // Upload new picture and set URL
-            String newProfilePictureUrl = uploadFileToCloudinary(profilePictureFile);
+            String newProfilePictureUrl = mediaUploadService.upload(profilePictureFile);
             user.setProfilePicture(newProfilePictureUrl);
         }
         // Case 2: User removed picture without uploading a new one
@@ -98,58 +120,94 @@ public class UserService {
         return userRepository.save(user);
     }
 
-    private String uploadFileToCloudinary(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            return null;
-        }
-        try {
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-            return (String) uploadResult.get("secure_url");
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to upload file to Cloudinary", e);
+    // Sets a picture that is already stored (direct upload), releasing the previous one
+    public User setProfilePicture(Long userId, String url) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        String old = user.getProfilePicture();
+        user.setProfilePicture(url);
+        User saved = userRepository.save(user);
+        if (old != null && !old.isEmpty()) {
+            cloudinaryService.deleteImageFromCloud(cloudinaryService.extractPublicId(old));
         }
+        return saved;
     }
 
-
-    public List<RecipeSearchSuggestionDTO> searchRecipes(String keyword) {
-        return recipeRepository.searchRecipesByKeyword(keyword)
+    // Title search served from the in-memory index, best matches first. A single word (what the
+    // search box sends while the user types) matches the same titles as a typeahead prefix, so it
+    // is answered from the typeahead's cached top-K (most reviewed first, at most
+    // newcooks.typeahead.max-suggestions) instead of scoring every title the prefix matches.
+    public List<RecipeSearchSuggestionDTO> searchRecipes(String keyword, Integer limit) {
+        int max = limit != null ? Math.min(limit, maxSearchResults) : maxSearchResults;
+        if (keyword != null && !keyword.isBlank() && keyword.trim().chars().allMatch(Character::isLetterOrDigit)) {
+            return recipeTypeahead.suggest(keyword, max).getSuggestions();
+        }
+        return recipeSearchIndex.search(keyword, null, false, max)
                 .stream()
-                .map(RecipeSearchSuggestionDTO::fromEntity)
+                .map(hit -> RecipeSearchSuggestionDTO.of(hit.recipeId(), hit.title(), hit.description()))
                 .toList();
     }
 
-    public FavoriteDTO toggleFavorite(String username, Long recipeId) {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Recipe recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
-
-        boolean isFavorite;
-        if (user.getFavoriteRecipes().contains(recipe)) {
-            user.getFavoriteRecipes().remove(recipe);
-            isFavorite = false;
-        } else {
-            user.getFavoriteRecipes().add(recipe);
-            isFavorite = true;
+    // One conditional DELETE, or INSERT if there was nothing to delete, on user_favorites; the
+    // favorites collection is never loaded. Counters move only when a row actually changed.
+    @Transactional
+    public FavoriteDTO toggleFavorite(Long userId, Long recipeId) {
+        if (recipeRepository.deleteFavorite(userId, recipeId) == 1) {
+            recipeRepository.applyFavoriteChange(recipeId, -1);
+            userRepository.applyAnalyticsChange(userId, -1, 0, 0);
+            return new FavoriteDTO(recipeId, false);
         }
 
-        userRepository.save(user);
+        if (recipeRepository.insertFavorite(userId, recipeId) == 1) {
+            recipeRepository.applyFavoriteChange(recipeId, 1);
+            userRepository.applyAnalyticsChange(userId, 1, 0, 0);
+        } else if (!recipeRepository.existsById(recipeId)) {
+            throw new RuntimeException("Recipe not found");
+        }
+        // Otherwise a concurrent click inserted it first: it is a favorite either way
+        return new FavoriteDTO(recipeId, true);
+    }
 
-        return new FavoriteDTO(recipeId, isFavorite);
+    public List<RecipeResponseDTO> getUserFavorites(Long userId) {
+        // Favorites come back with their chef join-fetched; collections are loaded in batch
+        List<Recipe> favorites = recipeRepository.findFavoritesByUserId(userId);
+        return recipeService.toRecipeResponseDTOs(favorites);
     }
 
-    public List<RecipeResponseDTO> getUserFavorites(String username) {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return user.getFavoriteRecipes()
-                .stream()
-                .map(recipe -> recipeService.toRecipeResponseDTO(recipe)) // reuse existing mapping
-                .toList();
+    public List<RecipeCardDTO> getUserFavoriteCards(Long userId) {
+        return recipeRepository.findFavoriteCardsByUserId(userId);
     }
 
+    // The caller's rating, review and favorite flag for a page of recipes, in the order asked for:
+    // three IN-list queries whatever the page size. Unknown ids come back as an empty state.
+    public List<UserRecipeStateDTO> getRecipeStates(Long userId, List<Long> recipeIds) {
+        List<Long> ids = recipeIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > maxRecipeStateIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxRecipeStateIds + " recipe ids per request");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
 
+        Map<Long, UserRecipeStateDTO> states = new LinkedHashMap<>();
+        for (Long id : ids) {
+            states.put(id, new UserRecipeStateDTO(id, 0, null, null, false));
+        }
+        for (Object[] row : ratingRepository.findStarsByUserForRecipes(userId, ids)) {
+            states.get((Long) row[0]).setStars((Integer) row[1]);
+        }
+        for (Object[] row : reviewRepository.findByUserForRecipes(userId, ids)) {
+            UserRecipeStateDTO state = states.get((Long) row[0]);
+            state.setReviewId((Long) row[1]);
+            state.setReviewText((String) row[2]);
+        }
+        for (Long id : recipeRepository.findFavoriteRecipeIds(userId, ids)) {
+            states.get(id).setFavorite(true);
+        }
+        return new ArrayList<>(states.values());
+    }
 
     public Optional<User> findByEmail(String email) {
         return userRepository.findByEmail(email);
@@ -0,0 +1,60 @@
+package com.NewCooks.NewCooks.Storage;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+@Component
+@ConditionalOnProperty(name = "newcooks.media.storage", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CloudinaryMediaStorage implements MediaStorage {
+
+    private final Cloudinary cloudinary;
+
+    @Override
+    public String upload(Path file, String originalFilename) throws IOException {
+        // A File body is streamed by the HTTP uploader rather than read into memory
+        Map uploadResult = cloudinary.uploader().upload(file.toFile(), ObjectUtils.emptyMap());
+        return (String) uploadResult.get("secure_url");
+    }
+
+    @Override
+    public Set<String> delete(Collection<String> publicIds) throws IOException {
+        Map<?, ?> response;
+        try {
+            response = cloudinary.api().deleteResources(publicIds, ObjectUtils.emptyMap());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        Set<String> gone = new HashSet<>();
+        if (response.get("deleted") instanceof Map<?, ?> statuses) {
+            statuses.forEach((id, status) -> {
+                if ("deleted".equals(status) || "not_found".equals(status)) {
+                    gone.add(String.valueOf(id));
+                }
+            });
+        }
+        return gone;
+    }
+
+    @Override
+    public String publicIdOf(String url) {
+        // Cloudinary URL example: https://res.cloudinary.com/<cloud>/image/upload/v123456/<public_id>.jpg
+        String[] parts = url.split("/");
+        String filename = parts[parts.length - 1]; // "<public_id>.jpg"
+        return filename.substring(0, filename.lastIndexOf('.')); // "<public_id>"
+    }
+
+    @Override
+    public String urlOf(String publicId) {
+        return cloudinary.url().secure(true).generate(publicId);
+    }
+}
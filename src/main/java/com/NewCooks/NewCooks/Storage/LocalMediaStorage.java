@@ -0,0 +1,95 @@
+package com.NewCooks.NewCooks.Storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps media on local disk under newcooks.media.local.root and serves it through
+ * LocalMediaController. Files are named by a random id plus the original extension, so a URL
+ * never changes content and can be cached forever.
+ */
+@Component
+@ConditionalOnProperty(name = "newcooks.media.storage", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage {
+
+    // Also guards against path traversal: ids never contain separators or ".."
+    private static final Pattern PUBLIC_ID = Pattern.compile("[A-Za-z0-9-]{1,64}(\\.[A-Za-z0-9]{1,10})?");
+    private static final Pattern EXTENSION = Pattern.compile("[A-Za-z0-9]{1,10}");
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalMediaStorage(@Value("${newcooks.media.local.root:./media-store}") String root,
+                             @Value("${newcooks.media.local.base-url:http://localhost:8080/media}") String baseUrl) throws IOException {
+        this.root = Files.createDirectories(Paths.get(root).toAbsolutePath().normalize());
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public String upload(Path file, String originalFilename) throws IOException {
+        String publicId = UUID.randomUUID() + extensionOf(originalFilename);
+        Path partial = root.resolve(publicId + ".part");
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            out.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        // Readers never see a half-written file
+        Files.move(partial, root.resolve(publicId), StandardCopyOption.ATOMIC_MOVE);
+        return urlOf(publicId);
+    }
+
+    @Override
+    public Set<String> delete(Collection<String> publicIds) throws IOException {
+        Set<String> gone = new HashSet<>();
+        for (String publicId : publicIds) {
+            Path path = resolve(publicId);
+            if (path != null) {
+                Files.deleteIfExists(path);
+            }
+            gone.add(publicId);
+        }
+        return gone;
+    }
+
+    @Override
+    public String publicIdOf(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public String urlOf(String publicId) {
+        return baseUrl + "/" + publicId;
+    }
+
+    // Returns the file for a public id, or null when the id is malformed
+    public Path resolve(String publicId) {
+        if (publicId == null || !PUBLIC_ID.matcher(publicId).matches()) {
+            return null;
+        }
+        return root.resolve(publicId);
+    }
+
+    private String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : filename.substring(dot + 1);
+        return EXTENSION.matcher(extension).matches() ? "." + extension.toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -0,0 +1,31 @@
+package com.NewCooks.NewCooks.Storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Where uploaded media lives. Selected with newcooks.media.storage: "cloudinary" (default) or
+ * "local" for a self-hosted, offline mode backed by the filesystem.
+ */
+public interface MediaStorage {
+
+    /**
+     * Stores the file and returns the public URL clients should use for it.
+     * originalFilename is only a hint for the file type and may be null.
+     */
+    String upload(Path file, String originalFilename) throws IOException;
+
+    /**
+     * Deletes the given assets and returns the ids that are now gone (deleted or never existed).
+     * Ids missing from the result should be retried; a thrown exception means retry them all.
+     */
+    Set<String> delete(Collection<String> publicIds) throws IOException;
+
+    // Maps a URL returned by upload back to the id delete expects
+    String publicIdOf(String url);
+
+    // Inverse of publicIdOf
+    String urlOf(String publicId);
+}
@@ -0,0 +1,39 @@
+package com.NewCooks.NewCooks.DTO;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantsDTOTest {
+
+	@Test
+	void assetsWithoutVariantsHaveNoDto() {
+		assertThat(ImageVariantsDTO.fromSrcset(null, null)).isNull();
+		assertThat(ImageVariantsDTO.fromSrcset("", null)).isNull();
+	}
+
+	@Test
+	void placeholderAloneStillProducesADto() {
+		ImageVariantsDTO dto = ImageVariantsDTO.fromSrcset(null, "data:image/jpeg;base64,AAAA");
+
+		assertThat(dto.getWidths()).isEmpty();
+		assertThat(dto.getPlaceholder()).isEqualTo("data:image/jpeg;base64,AAAA");
+	}
+
+	@Test
+	void parsesWidthsInSrcsetOrder() {
+		String srcset = "https://cdn.example.com/w_320/a.jpg 320w, "
+				+ "https://cdn.example.com/w_640/a.jpg 640w, "
+				+ "https://cdn.example.com/w_1280/a.jpg 1280w";
+
+		ImageVariantsDTO dto = ImageVariantsDTO.fromSrcset(srcset, null);
+
+		assertThat(dto.getWidths()).containsExactly(
+				entry(320, "https://cdn.example.com/w_320/a.jpg"),
+				entry(640, "https://cdn.example.com/w_640/a.jpg"),
+				entry(1280, "https://cdn.example.com/w_1280/a.jpg"));
+		assertThat(dto.getSrcset()).isEqualTo(srcset);
+		assertThat(dto.getPlaceholder()).isNull();
+	}
+}
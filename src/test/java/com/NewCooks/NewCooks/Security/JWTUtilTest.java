@@ -0,0 +1,117 @@
+package com.NewCooks.NewCooks.Security;
+
+import com.NewCooks.NewCooks.Entity.User;
+import com.NewCooks.NewCooks.Repository.ChefRepository;
+import com.NewCooks.NewCooks.Repository.UserRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class JWTUtilTest {
+
+	private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+	private final ChefRepository chefRepository = mock(ChefRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+
+	@Test
+	void verifiesAndCachesClaims() {
+		JWTUtil jwt = jwtUtil(60_000, 100);
+		String token = jwt.generateToken("cook@example.com", AuthenticatedAccount.ROLE_USER, 42L);
+
+		VerifiedToken first = jwt.verify(token).orElseThrow();
+		assertThat(first.accountId()).isEqualTo(42L);
+		assertThat(first.username()).isEqualTo("cook@example.com");
+		assertThat(first.role()).isEqualTo(AuthenticatedAccount.ROLE_USER);
+		assertThat(jwt.verify(token)).containsSame(first);
+	}
+
+	@Test
+	void rejectsTamperedTokens() {
+		JWTUtil jwt = jwtUtil(60_000, 100);
+		String token = jwt.generateToken("cook@example.com", AuthenticatedAccount.ROLE_CHEF, 7L);
+
+		assertThat(jwt.verify(token + "x")).isEmpty();
+		assertThat(jwt.verify("not-a-token")).isEmpty();
+	}
+
+	@Test
+	void cachedTokenStopsVerifyingOnceExpired() throws InterruptedException {
+		JWTUtil jwt = jwtUtil(2_000, 100);
+		String token = jwt.generateToken("cook@example.com", AuthenticatedAccount.ROLE_USER, 42L);
+		assertThat(jwt.verify(token)).isPresent();
+
+		// exp has second precision, so a 2s token is valid for at least one more second
+		Thread.sleep(3_100);
+
+		assertThat(jwt.verify(token)).isEmpty();
+		assertThat(cache(jwt)).doesNotContainKey(token);
+	}
+
+	@Test
+	void cacheStaysWithinItsBound() {
+		JWTUtil jwt = jwtUtil(60_000, 10);
+		for (long id = 1; id <= 50; id++) {
+			String token = jwt.generateToken("cook" + id + "@example.com", AuthenticatedAccount.ROLE_USER, id);
+			assertThat(jwt.verify(token)).isPresent();
+		}
+		assertThat(cache(jwt)).hasSizeLessThanOrEqualTo(10);
+	}
+
+	@Test
+	void legacyTokensWithoutUidResolveTheIdByEmailOnce() {
+		User user = new User();
+		user.setUserId(42L);
+		when(userRepository.findByEmail("cook@example.com")).thenReturn(Optional.of(user));
+		JWTUtil jwt = jwtUtil(60_000, 100);
+		String token = legacyToken("cook@example.com", AuthenticatedAccount.ROLE_USER);
+
+		assertThat(jwt.verify(token)).map(VerifiedToken::accountId).contains(42L);
+		assertThat(jwt.verify(token)).map(VerifiedToken::accountId).contains(42L);
+		verify(userRepository, times(1)).findByEmail("cook@example.com");
+		verifyNoInteractions(chefRepository);
+	}
+
+	@Test
+	void legacyTokensOfDeletedAccountsAreRejected() {
+		when(chefRepository.findByEmail("gone@example.com")).thenReturn(Optional.empty());
+		JWTUtil jwt = jwtUtil(60_000, 100);
+
+		assertThat(jwt.verify(legacyToken("gone@example.com", AuthenticatedAccount.ROLE_CHEF))).isEmpty();
+	}
+
+	// Shaped like the tokens issued before the uid claim existed
+	private static String legacyToken(String email, String role) {
+		return Jwts.builder()
+				.setSubject(email)
+				.claim("role", role)
+				.setIssuedAt(new Date())
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(new SecretKeySpec(new byte[32], SignatureAlgorithm.HS256.getJcaName()), SignatureAlgorithm.HS256)
+				.compact();
+	}
+
+	private JWTUtil jwtUtil(long expirationMillis, int cacheSize) {
+		JWTUtil jwt = new JWTUtil(chefRepository, userRepository);
+		ReflectionTestUtils.setField(jwt, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(jwt, "jwtExpiration", expirationMillis);
+		ReflectionTestUtils.setField(jwt, "verifiedCacheSize", cacheSize);
+		jwt.init();
+		return jwt;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, VerifiedToken> cache(JWTUtil jwt) {
+		return (Map<String, VerifiedToken>) ReflectionTestUtils.getField(jwt, "verifiedTokens");
+	}
+}
@@ -0,0 +1,91 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.DataMigration;
+import com.NewCooks.NewCooks.Repository.ChefRepository;
+import com.NewCooks.NewCooks.Repository.DataMigrationRepository;
+import com.NewCooks.NewCooks.Repository.RecipeRepository;
+import com.NewCooks.NewCooks.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AggregateBackfillServiceTest {
+
+	private RecipeRepository recipeRepository;
+	private ChefRepository chefRepository;
+	private UserRepository userRepository;
+	private DataMigrationRepository dataMigrationRepository;
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		recipeRepository = mock(RecipeRepository.class);
+		chefRepository = mock(ChefRepository.class);
+		userRepository = mock(UserRepository.class);
+		dataMigrationRepository = mock(DataMigrationRepository.class);
+		transactionTemplate = mock(TransactionTemplate.class);
+		doAnswer(inv -> {
+			((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		when(recipeRepository.findMaxRecipeId()).thenReturn(5L);
+		when(chefRepository.findMaxChefId()).thenReturn(5L);
+		when(userRepository.findMaxUserId()).thenReturn(5L);
+	}
+
+	@Test
+	void pendingRebuildsRunInBatchesAndAreRecorded() {
+		service(false, 2).backfillPending();
+
+		verify(recipeRepository).recomputeRatingAggregates(1, 3);
+		verify(recipeRepository).recomputeRatingAggregates(3, 5);
+		verify(recipeRepository).recomputeRatingAggregates(5, 7);
+		verify(recipeRepository, times(3)).recomputeFavoriteCounts(anyLong(), anyLong());
+		verify(chefRepository, times(3)).recomputeAnalytics(anyLong(), anyLong());
+		verify(userRepository, times(3)).recomputeAnalytics(anyLong(), anyLong());
+		ArgumentCaptor<DataMigration> saved = ArgumentCaptor.forClass(DataMigration.class);
+		verify(dataMigrationRepository, times(4)).save(saved.capture());
+		assertThat(saved.getAllValues()).extracting(DataMigration::getName)
+				.containsExactly("recipe-rating-aggregates", "recipe-favorite-counts", "chef-analytics", "user-analytics");
+	}
+
+	@Test
+	void recordedRebuildsAreSkipped() {
+		when(dataMigrationRepository.existsById(any())).thenReturn(true);
+
+		service(false, 500).backfillPending();
+
+		verify(recipeRepository, never()).recomputeRatingAggregates(anyLong(), anyLong());
+		verify(recipeRepository, never()).recomputeFavoriteCounts(anyLong(), anyLong());
+		verify(chefRepository, never()).recomputeAnalytics(anyLong(), anyLong());
+		verify(userRepository, never()).recomputeAnalytics(anyLong(), anyLong());
+		verify(dataMigrationRepository, never()).save(any());
+	}
+
+	@Test
+	void repairFlagRepeatsRecordedRebuilds() {
+		when(dataMigrationRepository.existsById(any())).thenReturn(true);
+
+		service(true, 500).backfillPending();
+
+		verify(recipeRepository).recomputeRatingAggregates(1, 501);
+		verify(recipeRepository).recomputeFavoriteCounts(1, 501);
+		verify(chefRepository).recomputeAnalytics(1, 501);
+		verify(userRepository).recomputeAnalytics(1, 501);
+	}
+
+	private AggregateBackfillService service(boolean backfillOnStartup, int batchSize) {
+		return new AggregateBackfillService(recipeRepository, chefRepository, userRepository,
+				dataMigrationRepository, transactionTemplate, backfillOnStartup, batchSize);
+	}
+}
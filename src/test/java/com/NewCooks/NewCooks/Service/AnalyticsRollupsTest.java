@@ -0,0 +1,45 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Repository.ChefDailyStatsRepository;
+import com.NewCooks.NewCooks.Repository.RecipeDailyStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AnalyticsRollupsTest {
+
+	private RecipeDailyStatsRepository recipeDailyStatsRepository;
+	private ChefDailyStatsRepository chefDailyStatsRepository;
+	private AnalyticsRollups rollups;
+
+	@BeforeEach
+	void setUp() {
+		recipeDailyStatsRepository = mock(RecipeDailyStatsRepository.class);
+		chefDailyStatsRepository = mock(ChefDailyStatsRepository.class);
+		rollups = new AnalyticsRollups(recipeDailyStatsRepository, chefDailyStatsRepository);
+	}
+
+	@Test
+	void removalIsChargedToTheDayTheRowWasCreated() {
+		rollups.recordRemoval(3L, Instant.parse("2026-01-02T23:30:00Z"), -1, 0);
+
+		LocalDate created = LocalDate.of(2026, 1, 2);
+		verify(recipeDailyStatsRepository).add(3L, created, -1, 0, 0);
+		verify(chefDailyStatsRepository).addForRecipe(3L, created, -1, 0, 0);
+	}
+
+	@Test
+	void undatedRemovalIsChargedToToday() {
+		rollups.recordRemoval(3L, null, 0, -1);
+
+		LocalDate today = LocalDate.now(ZoneOffset.UTC);
+		verify(recipeDailyStatsRepository).add(3L, today, 0, -1, 0);
+		verify(chefDailyStatsRepository).addForRecipe(3L, today, 0, -1, 0);
+	}
+}
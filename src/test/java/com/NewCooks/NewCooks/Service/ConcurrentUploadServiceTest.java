@@ -0,0 +1,95 @@
+package com.NewCooks.NewCooks.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ConcurrentUploadServiceTest {
+
+	private final MultipartFile first = file("first.jpg");
+	private final MultipartFile second = file("second.jpg");
+
+	private MediaUploadService mediaUploadService;
+	private CloudinaryService cloudinaryService;
+	private ConcurrentUploadService uploads;
+
+	@BeforeEach
+	void setUp() {
+		mediaUploadService = mock(MediaUploadService.class);
+		cloudinaryService = mock(CloudinaryService.class);
+		when(cloudinaryService.extractPublicId(anyString())).thenAnswer(inv -> "id:" + inv.getArgument(0));
+		uploads = new ConcurrentUploadService(mediaUploadService, cloudinaryService, 2, 10);
+	}
+
+	@AfterEach
+	void tearDown() {
+		uploads.shutdown();
+	}
+
+	@Test
+	void returnsUrlsInFileOrderWithNullsForMissingFiles() {
+		when(mediaUploadService.upload(first)).thenReturn("https://cdn/first.jpg");
+		when(mediaUploadService.upload(second)).thenReturn("https://cdn/second.jpg");
+
+		assertThat(uploads.uploadAll(Arrays.asList(first, null, second)))
+				.containsExactly("https://cdn/first.jpg", null, "https://cdn/second.jpg");
+		verify(cloudinaryService, never()).deleteImageFromCloud(anyString());
+	}
+
+	@Test
+	void failureReleasesUploadsThatAlreadyFinished() throws InterruptedException {
+		CountDownLatch firstDone = new CountDownLatch(1);
+		when(mediaUploadService.upload(first)).thenAnswer(inv -> {
+			firstDone.countDown();
+			return "https://cdn/first.jpg";
+		});
+		when(mediaUploadService.upload(second)).thenAnswer(inv -> {
+			firstDone.await(5, TimeUnit.SECONDS);
+			Thread.sleep(50);
+			throw new RuntimeException("storage down");
+		});
+
+		assertThatThrownBy(() -> uploads.uploadAll(Arrays.asList(first, second))).hasMessageContaining("Failed to upload");
+
+		verify(cloudinaryService, timeout(5_000)).deleteImageFromCloud("id:https://cdn/first.jpg");
+	}
+
+	@Test
+	void uploadFinishingAfterTheAbortReleasesItself() {
+		CountDownLatch firstStarted = new CountDownLatch(1);
+		AtomicBoolean aborted = new AtomicBoolean();
+		when(mediaUploadService.upload(first)).thenAnswer(inv -> {
+			firstStarted.countDown();
+			// Ignores the cancel interrupt, like an upload already past the point of no return
+			while (!aborted.get()) {
+				Thread.onSpinWait();
+			}
+			return "https://cdn/first.jpg";
+		});
+		when(mediaUploadService.upload(second)).thenAnswer(inv -> {
+			firstStarted.await(5, TimeUnit.SECONDS);
+			throw new RuntimeException("storage down");
+		});
+
+		assertThatThrownBy(() -> uploads.uploadAll(Arrays.asList(second, first))).hasMessageContaining("Failed to upload");
+		aborted.set(true);
+
+		verify(cloudinaryService, timeout(5_000)).deleteImageFromCloud("id:https://cdn/first.jpg");
+	}
+
+	private static MultipartFile file(String name) {
+		return new MockMultipartFile("images", name, "image/jpeg", new byte[]{1, 2, 3});
+	}
+}
@@ -0,0 +1,57 @@
+package com.NewCooks.NewCooks.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+	@Test
+	void roundTripsNewestCursor() {
+		FeedCursor cursor = new FeedCursor(FeedCursor.Sort.NEWEST, null, 42L);
+
+		FeedCursor decoded = FeedCursor.decode(cursor.encode());
+
+		assertThat(decoded.sort()).isEqualTo(FeedCursor.Sort.NEWEST);
+		assertThat(decoded.lastId()).isEqualTo(42L);
+		assertThat(decoded.sortValue()).isEmpty();
+	}
+
+	@Test
+	void roundTripsTitlesContainingSeparators() {
+		FeedCursor cursor = new FeedCursor(FeedCursor.Sort.TITLE, "Dal | Rice | Pickle", 7L);
+
+		assertThat(FeedCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void encodingIsUrlSafe() {
+		String encoded = new FeedCursor(FeedCursor.Sort.TITLE, "ÿÿ?>>~", 1L).encode();
+
+		assertThat(encoded).matches("[A-Za-z0-9_-]+");
+	}
+
+	@Test
+	void rejectsMalformedCursorsWithBadRequest() {
+		String unknownSort = Base64.getUrlEncoder().encodeToString("OLDEST|1|".getBytes(StandardCharsets.UTF_8));
+		String badId = Base64.getUrlEncoder().encodeToString("NEWEST|x|".getBytes(StandardCharsets.UTF_8));
+
+		for (String cursor : new String[]{"%%%", unknownSort, badId, ""}) {
+			assertThatThrownBy(() -> FeedCursor.decode(cursor))
+					.isInstanceOfSatisfying(ResponseStatusException.class,
+							e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+		}
+	}
+
+	@Test
+	void parsesSortNamesCaseInsensitively() {
+		assertThat(FeedCursor.Sort.from(" Title ")).isEqualTo(FeedCursor.Sort.TITLE);
+		assertThatThrownBy(() -> FeedCursor.Sort.from("popular")).isInstanceOf(ResponseStatusException.class);
+	}
+}
@@ -0,0 +1,90 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngredientIndexTest {
+
+	private IngredientIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new IngredientIndex(null);
+		index.index(recipe(1L, List.of("2 cups chopped tomatoes", "1 tsp salt", "olive oil"), List.of("pan")));
+		index.index(recipe(2L, List.of("salt", "onions"), List.of("pan", "knife")));
+		index.index(recipe(3L, List.of("Salt to taste", "2 tomatoes", "1 onion"), List.of("pot")));
+		index.index(recipe(4L, List.of("sugar"), List.of()));
+	}
+
+	@Test
+	void allOfMatchesEveryItemNewestFirst() {
+		IngredientIndex.SearchResult result = index.search(List.of("salt", "tomato"), List.of(), null, 10);
+
+		assertThat(result.requested()).isEqualTo(2);
+		assertThat(result.matches()).containsExactly(
+				new IngredientIndex.Match(3L, 2),
+				new IngredientIndex.Match(1L, 2));
+	}
+
+	@Test
+	void atLeastNOrdersByMatchCountThenNewest() {
+		IngredientIndex.SearchResult result =
+				index.search(List.of("salt", "tomato", "onion"), List.of("pan"), 2, 10);
+
+		assertThat(result.requested()).isEqualTo(4);
+		assertThat(result.matches()).containsExactly(
+				new IngredientIndex.Match(3L, 3),
+				new IngredientIndex.Match(2L, 3),
+				new IngredientIndex.Match(1L, 3));
+	}
+
+	@Test
+	void atLeastOneIncludesPartialMatchesAndStopsAtLimit() {
+		IngredientIndex.SearchResult all = index.search(List.of("salt", "onion", "sugar"), List.of(), 1, 10);
+		assertThat(all.matches()).containsExactly(
+				new IngredientIndex.Match(3L, 2),
+				new IngredientIndex.Match(2L, 2),
+				new IngredientIndex.Match(4L, 1),
+				new IngredientIndex.Match(1L, 1));
+
+		IngredientIndex.SearchResult page = index.search(List.of("salt", "onion", "sugar"), List.of(), 1, 3);
+		assertThat(page.matches()).extracting(IngredientIndex.Match::recipeId).containsExactly(3L, 2L, 4L);
+	}
+
+	@Test
+	void itemsWithoutUsableWordsAreNotCountedAsRequested() {
+		IngredientIndex.SearchResult result = index.search(List.of("salt", "123"), List.of(), null, 10);
+
+		assertThat(result.requested()).isEqualTo(1);
+		assertThat(result.matches()).allSatisfy(match -> assertThat(match.matched()).isEqualTo(1));
+	}
+
+	@Test
+	void reindexAndUnindexReplaceOldWords() {
+		index.index(recipe(2L, List.of("sugar"), List.of()));
+		index.unindex(3L);
+
+		assertThat(index.search(List.of("onion"), List.of(), null, 10).matches()).isEmpty();
+		assertThat(index.search(List.of("sugar"), List.of(), null, 10).matches())
+				.extracting(IngredientIndex.Match::recipeId).containsExactly(4L, 2L);
+	}
+
+	@Test
+	void wordsDropQuantitiesUnitsAndPlurals() {
+		assertThat(IngredientIndex.words("2 cups chopped Tomatoes")).containsExactly("tomato");
+		assertThat(IngredientIndex.words("Green chillies")).containsExactly("green", "chilly");
+	}
+
+	private static Recipe recipe(Long id, List<String> ingredients, List<String> utensils) {
+		Recipe recipe = new Recipe();
+		recipe.setRecipeId(id);
+		recipe.setIngredients(ingredients);
+		recipe.setUtensils(utensils);
+		return recipe;
+	}
+}
@@ -0,0 +1,116 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.MediaDeletion;
+import com.NewCooks.NewCooks.Repository.MediaDeletionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxTest {
+
+	private MediaDeletionRepository repository;
+	private Outbox<MediaDeletion> outbox;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		repository = mock(MediaDeletionRepository.class);
+		TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+		when(transactionTemplate.execute(any())).thenAnswer(inv ->
+				inv.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+		doAnswer(inv -> {
+			((Consumer<TransactionStatus>) inv.getArgument(0)).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		outbox = new Outbox<>(repository, transactionTemplate, 2, 3,
+				Duration.ofMinutes(2), Duration.ofSeconds(30), Duration.ofSeconds(100));
+	}
+
+	@Test
+	void drainLeasesEachBatchAndStopsOnAShortOne() {
+		List<MediaDeletion> full = List.of(row(0), row(0));
+		List<MediaDeletion> shortBatch = List.of(row(0));
+		when(repository.lockDue(any(), anyInt())).thenReturn(full, shortBatch);
+		List<List<MediaDeletion>> delivered = new ArrayList<>();
+
+		Instant before = Instant.now();
+		outbox.drain(delivered::add);
+
+		assertThat(delivered).containsExactly(full, shortBatch);
+		verify(repository, times(2)).lockDue(any(), eq(2));
+		assertThat(full.get(0).getNextAttemptAt()).isAfterOrEqualTo(before.plus(Duration.ofMinutes(2)));
+	}
+
+	@Test
+	void emptyClaimDeliversNothing() {
+		when(repository.lockDue(any(), anyInt())).thenReturn(List.of());
+		List<List<MediaDeletion>> delivered = new ArrayList<>();
+
+		outbox.drain(delivered::add);
+
+		assertThat(delivered).isEmpty();
+	}
+
+	@Test
+	void failedRowsBackOffExponentiallyUpToTheCap() {
+		MediaDeletion first = row(0);
+		MediaDeletion later = row(1);
+		List<MediaDeletion> gaveUp = new ArrayList<>();
+
+		Instant before = Instant.now();
+		outbox.failed(Map.of(first, "boom", later, "x".repeat(2000)), gaveUp::add);
+
+		assertThat(first.getAttempts()).isEqualTo(1);
+		assertThat(first.getLastError()).isEqualTo("boom");
+		assertThat(first.getNextAttemptAt()).isBetween(before.plusSeconds(30), Instant.now().plusSeconds(30));
+		assertThat(later.getLastError()).hasSize(1000);
+		assertThat(later.getNextAttemptAt()).isBetween(before.plusSeconds(60), Instant.now().plusSeconds(60));
+		assertThat(gaveUp).isEmpty();
+		verify(repository).saveAll(any());
+	}
+
+	@Test
+	void rowsOutOfAttemptsAreParked() {
+		MediaDeletion last = row(2);
+		List<MediaDeletion> gaveUp = new ArrayList<>();
+
+		outbox.failed(Map.of(last, "boom"), gaveUp::add);
+
+		assertThat(last.getNextAttemptAt()).isEqualTo(Outbox.PARKED);
+		assertThat(gaveUp).containsExactly(last);
+	}
+
+	@Test
+	void completedRowsAreDeleted() {
+		List<MediaDeletion> done = List.of(row(0));
+
+		outbox.completed(done);
+		outbox.completed(List.of());
+
+		verify(repository, times(1)).deleteAllInBatch(done);
+	}
+
+	private static MediaDeletion row(int attempts) {
+		return MediaDeletion.builder()
+				.publicId("img")
+				.attempts(attempts)
+				.nextAttemptAt(Instant.EPOCH)
+				.createdAt(Instant.EPOCH)
+				.build();
+	}
+}
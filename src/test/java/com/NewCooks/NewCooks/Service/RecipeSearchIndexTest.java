@@ -0,0 +1,89 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Entity.Chef;
+import com.NewCooks.NewCooks.Entity.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeSearchIndexTest {
+
+	private static final String LONG_DESCRIPTION = "Slow-cooked in a spiced tomato gravy. ".repeat(5);
+
+	private RecipeSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new RecipeSearchIndex(null);
+		index.index(recipe(1L, 10L, "Chicken Curry", LONG_DESCRIPTION));
+		index.index(recipe(2L, 10L, "Butter Chicken", "Creamy and mild"));
+		index.index(recipe(3L, 20L, "Chickpea Salad", "Quick lunch with chicken stock dressing"));
+		index.index(recipe(4L, 20L, "Curry Leaves Rice", null));
+	}
+
+	@Test
+	void everyQueryWordMustPrefixATitleWord() {
+		assertThat(index.search("chick cur", null, false, 10))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactly(1L);
+		assertThat(index.search("chic", null, false, 10))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactlyInAnyOrder(1L, 2L, 3L);
+		assertThat(index.search("lamb", null, false, 10)).isEmpty();
+		assertThat(index.search("  ", null, false, 10)).isEmpty();
+	}
+
+	@Test
+	void exactTitleWordsAndTitlePrefixRankFirst() {
+		assertThat(index.search("chicken", null, false, 10))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactly(1L, 2L);
+		assertThat(index.search("curry", null, false, 10))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactly(4L, 1L);
+		assertThat(index.search("curry", null, false, 1))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactly(4L);
+	}
+
+	@Test
+	void descriptionsOnlyCountWhenAsked() {
+		assertThat(index.search("stock", null, false, 10)).isEmpty();
+		assertThat(index.search("stock", 20L, true, 10))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactly(3L);
+	}
+
+	@Test
+	void chefScopedSearchOnlyReturnsThatChefsRecipes() {
+		assertThat(index.search("chicken", 10L, true, 10))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactly(1L, 2L);
+		assertThat(index.search("chicken", 20L, true, 10))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactly(3L);
+		assertThat(index.search("chicken", 99L, true, 10)).isEmpty();
+	}
+
+	@Test
+	void hitsCarryTheFullDescription() {
+		assertThat(index.search("chicken curry", null, false, 10))
+				.singleElement()
+				.extracting(RecipeSearchIndex.Hit::description).isEqualTo(LONG_DESCRIPTION);
+	}
+
+	@Test
+	void reindexMovesRecipeBetweenChefsAndUnindexDropsIt() {
+		index.index(recipe(2L, 20L, "Paneer Tikka", null));
+		index.unindex(1L);
+
+		assertThat(index.search("chicken", 10L, true, 10)).isEmpty();
+		assertThat(index.search("paneer", 20L, false, 10))
+				.extracting(RecipeSearchIndex.Hit::recipeId).containsExactly(2L);
+		assertThat(index.search("butter", null, false, 10)).isEmpty();
+	}
+
+	private static Recipe recipe(Long id, Long chefId, String title, String description) {
+		Chef chef = new Chef();
+		chef.setId(chefId);
+		Recipe recipe = new Recipe();
+		recipe.setRecipeId(id);
+		recipe.setChef(chef);
+		recipe.setTitle(title);
+		recipe.setDescription(description);
+		return recipe;
+	}
+}
@@ -0,0 +1,87 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.Repository.ChefRepository;
+import com.NewCooks.NewCooks.Repository.RatingRepository;
+import com.NewCooks.NewCooks.Repository.RecipeRepository;
+import com.NewCooks.NewCooks.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RecipeServiceRatingTest {
+
+	@Mock RecipeRepository recipeRepository;
+	@Mock ChefRepository chefRepository;
+	@Mock RatingRepository ratingRepository;
+	@Mock UserRepository userRepository;
+	@Mock AnalyticsRollups analyticsRollups;
+	@Mock TransactionTemplate transactionTemplate;
+	@InjectMocks RecipeService recipeService;
+
+	@BeforeEach
+	void setUp() {
+		when(transactionTemplate.execute(any())).thenAnswer(inv ->
+				inv.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+	}
+
+	@Test
+	void firstRatingCountsOnceForTheUser() {
+		when(ratingRepository.upsert(7L, 3L, 4)).thenReturn(List.<Object[]>of(new Object[]{11L, true, null, "Cook", "cook@example.com"}));
+
+		recipeService.addOrUpdateRating(3L, 7L, 4);
+
+		verify(userRepository).applyAnalyticsChange(7L, 0, 0, 1);
+		verify(recipeRepository).applyRatingChange(3L, 0, 4);
+	}
+
+	@Test
+	void changedRatingLeavesTheUserCountAlone() {
+		when(ratingRepository.upsert(7L, 3L, 2)).thenReturn(List.<Object[]>of(new Object[]{11L, false, 4, "Cook", "cook@example.com"}));
+
+		recipeService.addOrUpdateRating(3L, 7L, 2);
+
+		verify(userRepository, never()).applyAnalyticsChange(anyLong(), anyLong(), anyLong(), anyLong());
+		verify(recipeRepository).applyRatingChange(3L, 4, 2);
+	}
+
+	@Test
+	void deletedRatingIsTakenOutOfEveryCounter() {
+		Instant createdAt = Instant.parse("2026-01-02T10:00:00Z");
+		when(ratingRepository.deleteReturning(7L, 3L)).thenReturn(List.<Object[]>of(new Object[]{4, Timestamp.from(createdAt)}));
+
+		recipeService.deleteRating(7L, 3L);
+
+		verify(userRepository).applyAnalyticsChange(7L, 0, 0, -1);
+		verify(recipeRepository).applyRatingChange(3L, 4, 0);
+		verify(chefRepository).applyAnalyticsChangeForRecipe(3L, 0, -4, -1);
+		verify(analyticsRollups).recordRemoval(3L, createdAt, 0, -1);
+	}
+
+	@Test
+	void deletingAMissingRatingChangesNothing() {
+		when(ratingRepository.deleteReturning(7L, 3L)).thenReturn(List.of());
+
+		assertThatThrownBy(() -> recipeService.deleteRating(7L, 3L)).hasMessage("Rating not found");
+
+		verifyNoInteractions(userRepository, chefRepository, analyticsRollups);
+		verify(recipeRepository, never()).applyRatingChange(anyLong(), anyInt(), anyInt());
+	}
+}
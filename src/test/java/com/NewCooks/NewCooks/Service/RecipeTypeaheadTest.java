@@ -0,0 +1,135 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.DTO.RecipeSearchSuggestionDTO;
+import com.NewCooks.NewCooks.DTO.TypeaheadResponseDTO;
+import com.NewCooks.NewCooks.Entity.Chef;
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecipeTypeaheadTest {
+
+	private ReviewLeaderboard leaderboard;
+	private RecipeTypeahead typeahead;
+
+	@BeforeEach
+	void setUp() {
+		ReviewRepository reviewRepository = mock(ReviewRepository.class);
+		when(reviewRepository.countReviewsPerRecipe()).thenReturn(List.of(
+				new Object[]{1L, 10L, "Butter Chicken", null, 2L},
+				new Object[]{2L, 10L, "Chicken Curry", null, 5L},
+				new Object[]{4L, 20L, "Paneer Butter Masala", null, 1L}));
+		leaderboard = new ReviewLeaderboard(reviewRepository);
+		ReflectionTestUtils.setField(leaderboard, "maxK", 10);
+		leaderboard.seed();
+
+		typeahead = new RecipeTypeahead(null, leaderboard);
+		ReflectionTestUtils.setField(typeahead, "maxSuggestions", 2);
+		typeahead.index(recipe(1L, "Butter Chicken", null));
+		typeahead.index(recipe(2L, "Chicken  Curry", "x".repeat(100)));
+		typeahead.index(recipe(3L, "Chickpea Salad", "Quick lunch"));
+		typeahead.index(recipe(4L, "Paneer Butter Masala", null));
+	}
+
+	@Test
+	void matchesFromEveryWordStart() {
+		assertThat(ids(typeahead.suggest("Curry", null))).containsExactly(2L);
+		assertThat(ids(typeahead.suggest("butter", null))).containsExactly(1L, 4L);
+		assertThat(ids(typeahead.suggest("butter chi", null))).containsExactly(1L);
+		assertThat(ids(typeahead.suggest("icken", null))).isEmpty();
+
+		typeahead.index(recipe(5L, "Tikka-Masala (Mild)", null));
+		assertThat(ids(typeahead.suggest("mild", null))).containsExactly(5L);
+		assertThat(ids(typeahead.suggest("masala (", null))).containsExactly(5L);
+	}
+
+	@Test
+	void keepsTheMostReviewedAndFlagsIncompleteResults() {
+		TypeaheadResponseDTO partial = typeahead.suggest("chi", null);
+		assertThat(ids(partial)).containsExactly(2L, 1L);
+		assertThat(partial.isComplete()).isFalse();
+
+		TypeaheadResponseDTO limited = typeahead.suggest("butter", 1);
+		assertThat(ids(limited)).containsExactly(1L);
+		assertThat(limited.isComplete()).isFalse();
+
+		TypeaheadResponseDTO whole = typeahead.suggest("curry", 50);
+		assertThat(whole.isComplete()).isTrue();
+		assertThat(whole.getPrefix()).isEqualTo("curry");
+	}
+
+	@Test
+	void blankPrefixesSuggestNothing() {
+		assertThat(typeahead.suggest("  ", null).getSuggestions()).isEmpty();
+		assertThat(typeahead.suggest("chi", 0).getSuggestions()).isEmpty();
+	}
+
+	@Test
+	void popularityChangeRebuildsCachedRankings() {
+		assertThat(ids(typeahead.suggest("chi", null))).containsExactly(2L, 1L);
+
+		leaderboard.recipeSaved(recipe(3L, "Chickpea Salad", null));
+		leaderboard.reviewCountChanged(3L, 9);
+		typeahead.popularityChanged(3L);
+
+		assertThat(ids(typeahead.suggest("chi", null))).containsExactly(3L, 2L);
+	}
+
+	@Test
+	void rankingsMergeAcrossBranchesAndSurviveSiblingChanges() {
+		assertThat(ids(typeahead.suggest("cu", null))).containsExactly(2L);
+		assertThat(ids(typeahead.suggest("c", null))).containsExactly(2L, 1L);
+
+		leaderboard.recipeSaved(recipe(3L, "Chickpea Salad", null));
+		leaderboard.reviewCountChanged(3L, 9);
+		typeahead.popularityChanged(3L);
+
+		assertThat(ids(typeahead.suggest("c", null))).containsExactly(3L, 2L);
+		assertThat(ids(typeahead.suggest("cu", null))).containsExactly(2L);
+	}
+
+	@Test
+	void reindexAndUnindexUpdateSuggestions() {
+		assertThat(ids(typeahead.suggest("butter", null))).containsExactly(1L, 4L);
+
+		typeahead.index(recipe(1L, "Aloo Gobi", null));
+		typeahead.unindex(2L);
+
+		assertThat(ids(typeahead.suggest("butter", null))).containsExactly(4L);
+		assertThat(ids(typeahead.suggest("curry", null))).isEmpty();
+		assertThat(ids(typeahead.suggest("go", null))).containsExactly(1L);
+		TypeaheadResponseDTO chi = typeahead.suggest("chi", null);
+		assertThat(ids(chi)).containsExactly(3L);
+		assertThat(chi.isComplete()).isTrue();
+	}
+
+	@Test
+	void suggestionsCarryAShortDescription() {
+		assertThat(typeahead.suggest("curry", null).getSuggestions()).singleElement()
+				.extracting(RecipeSearchSuggestionDTO::getShortDescription)
+				.isEqualTo("x".repeat(80) + "...");
+	}
+
+	private static List<Long> ids(TypeaheadResponseDTO response) {
+		return response.getSuggestions().stream().map(RecipeSearchSuggestionDTO::getRecipeId).toList();
+	}
+
+	private static Recipe recipe(Long id, String title, String description) {
+		Chef chef = new Chef();
+		chef.setId(10L);
+		Recipe recipe = new Recipe();
+		recipe.setRecipeId(id);
+		recipe.setChef(chef);
+		recipe.setTitle(title);
+		recipe.setDescription(description);
+		return recipe;
+	}
+}
@@ -0,0 +1,82 @@
+package com.NewCooks.NewCooks.Service;
+
+import com.NewCooks.NewCooks.DTO.MostReviewedRecipeDTO;
+import com.NewCooks.NewCooks.Entity.Chef;
+import com.NewCooks.NewCooks.Entity.Recipe;
+import com.NewCooks.NewCooks.Repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReviewLeaderboardTest {
+
+	private ReviewLeaderboard leaderboard;
+
+	@BeforeEach
+	void setUp() {
+		ReviewRepository reviewRepository = mock(ReviewRepository.class);
+		when(reviewRepository.countReviewsPerRecipe()).thenReturn(List.of(
+				new Object[]{1L, 10L, "Dal", "dal.jpg", 3L},
+				new Object[]{2L, 10L, "Rajma", null, 5L},
+				new Object[]{3L, 20L, "Poha", null, 3L},
+				new Object[]{4L, 20L, "Upma", null, 0L}));
+		leaderboard = new ReviewLeaderboard(reviewRepository);
+		ReflectionTestUtils.setField(leaderboard, "maxK", 3);
+		leaderboard.seed();
+	}
+
+	@Test
+	void ranksByReviewsThenRecipeId() {
+		assertThat(leaderboard.top(10)).extracting(MostReviewedRecipeDTO::getRecipeId).containsExactly(2L, 1L, 3L);
+		assertThat(leaderboard.top(1)).singleElement().satisfies(dto -> {
+			assertThat(dto.getTitle()).isEqualTo("Rajma");
+			assertThat(dto.getTotalReviews()).isEqualTo(5L);
+		});
+	}
+
+	@Test
+	void chefRankingOnlyHoldsThatChefsRecipes() {
+		assertThat(leaderboard.topForChef(20L, 10)).extracting(MostReviewedRecipeDTO::getRecipeId).containsExactly(3L, 4L);
+		assertThat(leaderboard.topForChef(99L, 10)).isEmpty();
+	}
+
+	@Test
+	void reviewChangesReorderAndNeverGoNegative() {
+		leaderboard.reviewCountChanged(3L, 3);
+		leaderboard.reviewCountChanged(4L, -1);
+
+		assertThat(leaderboard.top(2)).extracting(MostReviewedRecipeDTO::getRecipeId).containsExactly(3L, 2L);
+		assertThat(leaderboard.reviewCount(3L)).isEqualTo(6);
+		assertThat(leaderboard.reviewCount(4L)).isZero();
+	}
+
+	@Test
+	void savedRecipesKeepTheirCountAndDeletedOnesDisappear() {
+		leaderboard.recipeSaved(recipe(1L, 10L, "Dal Tadka"));
+		leaderboard.recipeSaved(recipe(5L, 30L, "Kheer"));
+		leaderboard.recipeDeleted(2L);
+
+		assertThat(leaderboard.topForChef(10L, 10)).singleElement().satisfies(dto -> {
+			assertThat(dto.getTitle()).isEqualTo("Dal Tadka");
+			assertThat(dto.getTotalReviews()).isEqualTo(3L);
+		});
+		assertThat(leaderboard.topForChef(30L, 10)).extracting(MostReviewedRecipeDTO::getTotalReviews).containsExactly(0L);
+		assertThat(leaderboard.reviewCount(2L)).isZero();
+	}
+
+	private static Recipe recipe(Long id, Long chefId, String title) {
+		Chef chef = new Chef();
+		chef.setId(chefId);
+		Recipe recipe = new Recipe();
+		recipe.setRecipeId(id);
+		recipe.setChef(chef);
+		recipe.setTitle(title);
+		return recipe;
+	}
+}